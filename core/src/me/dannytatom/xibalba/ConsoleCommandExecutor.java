@@ -1,8 +1,10 @@
 package me.dannytatom.xibalba;
 
+import com.badlogic.gdx.math.Vector2;
 import com.strongjoshua.console.CommandExecutor;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.Map;
 import me.dannytatom.xibalba.world.WorldManager;
 
 public class ConsoleCommandExecutor extends CommandExecutor {
@@ -75,13 +77,44 @@ public class ConsoleCommandExecutor extends CommandExecutor {
     }
   }
 
+  /**
+   * Set how heavy the rain is, on every map that has any.
+   *
+   * @param density How many drops per cell on screen
+   */
+  public void weatherDensity(float density) {
+    Main.debug.weatherDensity = Math.max(0, density);
+
+    for (Map map : WorldManager.world.maps) {
+      if (map.weather != null) {
+        map.weather.setDensity(Main.debug.weatherDensity);
+      }
+    }
+
+    console.log("[GREEN]Weather density: " + Main.debug.weatherDensity);
+  }
+
+  /**
+   * Set where monster AI tiers start, see Debug.
+   *
+   * @param near Monsters closer than this think every turn
+   * @param far  Monsters further than this are parked
+   */
+  public void aiDetail(int near, int far) {
+    Main.debug.aiNearRadius = near;
+    Main.debug.aiFarRadius = Math.max(near, far);
+
+    console.log(
+      "[GREEN]AI detail: near " + Main.debug.aiNearRadius + ", far " + Main.debug.aiFarRadius
+    );
+  }
+
   /**
    * Teleport to entrance.
    */
   public void goToEntrance() {
-    ComponentMappers.position.get(WorldManager.player).pos.set(
-      WorldManager.world.getCurrentMap().entrance
-    );
+    Vector2 entrance = WorldManager.world.getCurrentMap().entrance;
+    WorldManager.entityHelpers.updatePosition(WorldManager.player, entrance.x, entrance.y);
 
     WorldManager.entityHelpers.updateSenses(WorldManager.player);
   }
@@ -90,9 +123,8 @@ public class ConsoleCommandExecutor extends CommandExecutor {
    * Teleport to exit.
    */
   public void goToExit() {
-    ComponentMappers.position.get(WorldManager.player).pos.set(
-      WorldManager.world.getCurrentMap().exit
-    );
+    Vector2 exit = WorldManager.world.getCurrentMap().exit;
+    WorldManager.entityHelpers.updatePosition(WorldManager.player, exit.x, exit.y);
 
     WorldManager.entityHelpers.updateSenses(WorldManager.player);
   }
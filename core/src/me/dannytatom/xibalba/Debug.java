@@ -1,7 +1,19 @@
 package me.dannytatom.xibalba;
 
+import me.dannytatom.xibalba.world.MapWeather;
+
 public class Debug {
   public boolean debugEnabled = false;
   public boolean fieldOfViewEnabled = true;
   public boolean weatherEnabled = true;
+  // How many rain drops per cell on screen
+  public float weatherDensity = MapWeather.DEFAULT_DENSITY;
+
+  // Monsters within this many cells of the player think every turn
+  public int aiNearRadius = 10;
+  // Past this they're parked, and only wander about every aiFarInterval turns
+  public int aiFarRadius = 20;
+  // How many turns monsters in between think
+  public int aiMidInterval = 3;
+  public int aiFarInterval = 10;
 }
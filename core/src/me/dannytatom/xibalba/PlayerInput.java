@@ -8,8 +8,8 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.Vector2;
 import me.dannytatom.xibalba.components.*;
 import me.dannytatom.xibalba.components.actions.ExploreComponent;
-import me.dannytatom.xibalba.components.actions.MovementComponent;
-import me.dannytatom.xibalba.components.actions.RangeComponent;
+import me.dannytatom.xibalba.components.actions.MovementAction;
+import me.dannytatom.xibalba.components.actions.RangeAction;
 import me.dannytatom.xibalba.components.items.WeaponComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
@@ -27,7 +27,9 @@ public class PlayerInput implements InputProcessor {
 
   @Override
   public boolean keyDown(int keycode) {
-    if (WorldManager.entityHelpers.shouldSkipTurn(WorldManager.player)) {
+    // Hold on until everyone's done with the last turn
+    if (WorldManager.turnInProgress
+      || WorldManager.entityHelpers.shouldSkipTurn(WorldManager.player)) {
       return false;
     }
 
@@ -201,7 +203,7 @@ public class PlayerInput implements InputProcessor {
         if (WorldManager.state == WorldManager.State.MOVING) {
           WorldManager.player.remove(MouseMovementComponent.class);
           WorldManager.player.remove(ExploreComponent.class);
-          WorldManager.player.remove(MovementComponent.class);
+          ComponentMappers.actions.get(WorldManager.player).movement.clear();
         }
 
         WorldManager.state = WorldManager.State.PLAYING;
@@ -256,7 +258,8 @@ public class PlayerInput implements InputProcessor {
 
   @Override
   public boolean touchUp(int screenX, int screenY, int pointer, int button) {
-    if (WorldManager.entityHelpers.shouldSkipTurn(WorldManager.player) || button == 1) {
+    if (WorldManager.turnInProgress
+      || WorldManager.entityHelpers.shouldSkipTurn(WorldManager.player) || button == 1) {
       return false;
     }
 
@@ -278,7 +281,7 @@ public class PlayerInput implements InputProcessor {
       } else {
         if (ComponentMappers.mouseMovement.get(WorldManager.player) == null) {
           if (WorldManager.mapHelpers.cellExists(mousePosition)
-            && !WorldManager.mapHelpers.getCell(mousePosition.x, mousePosition.y).hidden) {
+            && !WorldManager.mapHelpers.getCell(mousePosition.x, mousePosition.y).isHidden()) {
             WorldManager.player.add(new MouseMovementComponent());
 
             WorldManager.state = WorldManager.State.MOVING;
@@ -378,8 +381,8 @@ public class PlayerInput implements InputProcessor {
         player.focusedEntity = enemy;
       }
     } else {
-      if (energy >= MovementComponent.COST) {
-        WorldManager.player.add(new MovementComponent(pos));
+      if (energy >= MovementAction.COST) {
+        ComponentMappers.actions.get(WorldManager.player).move(pos);
 
         WorldManager.executeTurn = true;
       }
@@ -399,7 +402,7 @@ public class PlayerInput implements InputProcessor {
   private void handleThrow() {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    if (attributes.energy < RangeComponent.COST) {
+    if (attributes.energy < RangeAction.COST) {
       return;
     }
 
@@ -425,7 +428,7 @@ public class PlayerInput implements InputProcessor {
   private void handleRange() {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    if (attributes.energy < RangeComponent.COST) {
+    if (attributes.energy < RangeAction.COST) {
       return;
     }
 
@@ -6,7 +6,6 @@ import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.math.MathUtils;
 import me.dannytatom.xibalba.components.BrainComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.actions.MeleeComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
@@ -17,13 +16,15 @@ public enum Brain implements State<Entity> {
       BrainComponent brain = ComponentMappers.brain.get(entity);
 
       brain.path = null;
+      brain.wakeTurn = Brain.wakeTurn();
     }
 
     @Override
     public void update(Entity entity) {
-      if (Brain.shouldWakeUp()) {
-        BrainComponent brain = ComponentMappers.brain.get(entity);
+      BrainComponent brain = ComponentMappers.brain.get(entity);
 
+      if (WorldManager.turnCount >= brain.wakeTurn
+        || WorldManager.entityHelpers.canHearPlayer(entity)) {
         brain.stateMachine.changeState(WANDER);
       }
     }
@@ -138,10 +139,26 @@ public enum Brain implements State<Entity> {
         return;
       }
 
-      entity.add(new MeleeComponent(brain.target, "body", false));
+      ComponentMappers.actions.get(entity).melee(brain.target, "body", false);
     }
   };
 
+  /**
+   * Roll ahead of time for when something that just fell asleep is going to wake up, same odds as
+   * rolling shouldWakeUp every turn, so they can be left alone until then.
+   *
+   * @return The turn they'll wake up on
+   */
+  public static int wakeTurn() {
+    int turns = 1;
+
+    while (!shouldWakeUp()) {
+      turns += 1;
+    }
+
+    return WorldManager.turnCount + turns;
+  }
+
   private static boolean shouldSleep() {
     return MathUtils.random() > 0.75f;
   }
@@ -1,6 +1,7 @@
 package me.dannytatom.xibalba.components;
 
 import com.badlogic.ashley.core.Component;
+import me.dannytatom.xibalba.world.FovMap;
 
 public class AttributesComponent implements Component {
   public final String description;
@@ -19,8 +20,12 @@ public class AttributesComponent implements Component {
   public int health;
   public int oxygen;
   public int energy;
-  public float[][] visionMap;
-  public float[][] hearingMap;
+
+  // Only the window around them their vision can reach is kept
+  public final FovMap visionMap = new FovMap();
+
+  // Set when they've moved, vision gets worked out again the next time someone asks about it
+  public boolean sensesDirty = true;
 
   /**
    * Holds entity attributes.
@@ -23,8 +23,15 @@ public class BrainComponent implements Component {
   public Array<Vector2> path;
   public Entity target;
 
+  // What turn they'll wake up on if they're asleep and nothing wakes them sooner
+  public int wakeTurn;
+  // When they're next due to think if they're not near the player, and when they last got a turn
+  public int thinkTurn;
+  public int lastTurn;
+
   public BrainComponent(Entity entity) {
     stateMachine = new DefaultStateMachine<>(entity, Brain.SLEEP);
+    wakeTurn = Brain.wakeTurn();
 
     dna = new Array<>();
     hates = new Array<>();
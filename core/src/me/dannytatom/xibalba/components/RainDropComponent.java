@@ -1,11 +0,0 @@
-package me.dannytatom.xibalba.components;
-
-import com.badlogic.ashley.core.Component;
-
-public class RainDropComponent implements Component {
-  public int life = 1;
-
-  public RainDropComponent() {
-
-  }
-}
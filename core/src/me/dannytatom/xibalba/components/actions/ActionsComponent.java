@@ -0,0 +1,77 @@
+package me.dannytatom.xibalba.components.actions;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * What an actor's going to do on their turn. There's one slot per kind of action that gets filled
+ * in and emptied again turn after turn, so queueing something up doesn't add anything to the
+ * entity or make anything new. The action systems do whatever's in the slots then clear them.
+ */
+public class ActionsComponent implements Component {
+  public final MovementAction movement = new MovementAction();
+  public final MeleeAction melee = new MeleeAction();
+  public final RangeAction range = new RangeAction();
+
+  /**
+   * Move somewhere.
+   *
+   * @param cellX Where to
+   * @param cellY Where to
+   */
+  public void move(float cellX, float cellY) {
+    movement.pos.set(cellX, cellY);
+    movement.pending = true;
+  }
+
+  public void move(Vector2 pos) {
+    move(pos.x, pos.y);
+  }
+
+  /**
+   * Hit someone.
+   *
+   * @param target    Who they're attacking
+   * @param bodyPart  Where on that entity they're attacking
+   * @param isFocused Is it a focused attack?
+   */
+  public void melee(Entity target, String bodyPart, boolean isFocused) {
+    melee.target = target;
+    melee.bodyPart = bodyPart;
+    melee.isFocused = isFocused;
+    melee.pending = true;
+  }
+
+  /**
+   * Throw or shoot something.
+   *
+   * @param position  Target position
+   * @param item      What's being thrown or shot
+   * @param skill     What skill is associated with that item
+   * @param bodyPart  Where we're aiming
+   * @param isFocused Is it a focused attack?
+   */
+  public void range(Vector2 position, Entity item, String skill,
+                    String bodyPart, boolean isFocused) {
+    range.position.set(position);
+    range.item = item;
+    range.skill = skill;
+    range.bodyPart = bodyPart;
+    range.isFocused = isFocused;
+    range.pending = true;
+  }
+
+  public boolean hasPending() {
+    return movement.pending || melee.pending || range.pending;
+  }
+
+  /**
+   * Forget about everything they were going to do.
+   */
+  public void clear() {
+    movement.clear();
+    melee.clear();
+    range.clear();
+  }
+}
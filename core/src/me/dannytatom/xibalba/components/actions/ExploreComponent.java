@@ -7,6 +7,9 @@ import com.badlogic.gdx.utils.Array;
 public class ExploreComponent implements Component {
   public Array<Vector2> path;
 
+  // Whether we've asked for a new explore map and are waiting on it
+  public boolean waiting = false;
+
   public ExploreComponent() {
     path = new Array<>();
   }
@@ -0,0 +1,21 @@
+package me.dannytatom.xibalba.components.actions;
+
+import com.badlogic.ashley.core.Entity;
+
+public class MeleeAction {
+  public static final int COST = 100;
+
+  public Entity target;
+  public String bodyPart;
+  public boolean isFocused;
+  public boolean pending = false;
+
+  /**
+   * Done with it, let go of who we were hitting.
+   */
+  public void clear() {
+    target = null;
+    bodyPart = null;
+    pending = false;
+  }
+}
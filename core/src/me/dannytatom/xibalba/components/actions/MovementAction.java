@@ -0,0 +1,14 @@
+package me.dannytatom.xibalba.components.actions;
+
+import com.badlogic.gdx.math.Vector2;
+
+public class MovementAction {
+  public static final int COST = 100;
+
+  public final Vector2 pos = new Vector2();
+  public boolean pending = false;
+
+  public void clear() {
+    pending = false;
+  }
+}
@@ -0,0 +1,25 @@
+package me.dannytatom.xibalba.components.actions;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Vector2;
+
+public class RangeAction {
+  public static final int COST = 100;
+
+  public final Vector2 position = new Vector2();
+  public Entity item;
+  public String skill;
+  public String bodyPart;
+  public boolean isFocused;
+  public boolean pending = false;
+
+  /**
+   * Done with it, let go of what we were using.
+   */
+  public void clear() {
+    item = null;
+    skill = null;
+    bodyPart = null;
+    pending = false;
+  }
+}
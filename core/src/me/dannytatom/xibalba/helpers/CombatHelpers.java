@@ -6,13 +6,14 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.*;
-import me.dannytatom.xibalba.components.actions.MeleeComponent;
-import me.dannytatom.xibalba.components.actions.RangeComponent;
+import me.dannytatom.xibalba.components.actions.MeleeAction;
+import me.dannytatom.xibalba.components.actions.RangeAction;
 import me.dannytatom.xibalba.components.items.WeaponComponent;
 import me.dannytatom.xibalba.components.statuses.BleedingComponent;
 import me.dannytatom.xibalba.components.statuses.CrippledComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.utils.SpriteAccessor;
+import me.dannytatom.xibalba.world.MapSound;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import java.util.Objects;
@@ -23,7 +24,7 @@ public class CombatHelpers {
   }
 
   /**
-   * Add MeleeComponent to player.
+   * Queue up a melee attack for the player.
    *
    * @param enemy    Who ya hitting
    * @param bodyPart Where ya hitting them at
@@ -31,13 +32,13 @@ public class CombatHelpers {
   public void preparePlayerForMelee(Entity enemy, String bodyPart, boolean isFocused) {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    if (attributes.energy >= MeleeComponent.COST) {
-      WorldManager.player.add(new MeleeComponent(enemy, bodyPart, isFocused));
+    if (attributes.energy >= MeleeAction.COST) {
+      ComponentMappers.actions.get(WorldManager.player).melee(enemy, bodyPart, isFocused);
     }
   }
 
   /**
-   * Add RangeComponent to player for throwing.
+   * Queue up a throw for the player.
    *
    * @param position Where ya throwing
    * @param bodyPart Where you trying to hit em
@@ -45,15 +46,17 @@ public class CombatHelpers {
   public void preparePlayerForThrowing(Vector2 position, String bodyPart, boolean isFocused) {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    if (attributes.energy >= RangeComponent.COST) {
+    if (attributes.energy >= RangeAction.COST) {
       Entity item = WorldManager.itemHelpers.getThrowing(WorldManager.player);
 
-      WorldManager.player.add(new RangeComponent(position, item, "throwing", bodyPart, isFocused));
+      ComponentMappers.actions.get(WorldManager.player).range(
+        position, item, "throwing", bodyPart, isFocused
+      );
     }
   }
 
   /**
-   * Add RangeComponent to player for range weapons.
+   * Queue up a shot for the player.
    *
    * @param position Where ya shooting
    * @param bodyPart Where you trying to hit em
@@ -61,7 +64,7 @@ public class CombatHelpers {
   public void preparePlayerForRanged(Vector2 position, String bodyPart, boolean isFocused) {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    if (attributes.energy >= RangeComponent.COST) {
+    if (attributes.energy >= RangeAction.COST) {
       Entity primaryWeapon = WorldManager.itemHelpers.getRightHand(WorldManager.player);
       WeaponComponent weapon = ComponentMappers.weapon.get(primaryWeapon);
 
@@ -71,8 +74,8 @@ public class CombatHelpers {
 
       ItemComponent itemDetails = ComponentMappers.item.get(item);
 
-      WorldManager.player.add(
-        new RangeComponent(position, item, itemDetails.skill, bodyPart, isFocused)
+      ComponentMappers.actions.get(WorldManager.player).range(
+        position, item, itemDetails.skill, bodyPart, isFocused
       );
     }
   }
@@ -97,6 +100,7 @@ public class CombatHelpers {
     int skillLevel = starterSkills.levels.get(skill);
 
     int hit = rollHit(starter, target, skillLevel, bodyPart);
+    WorldManager.entityHelpers.makeNoise(starter, MapSound.COMBAT);
 
     if (hit > 0) {
       if (ComponentMappers.player.has(starter)) {
@@ -131,6 +135,7 @@ public class CombatHelpers {
     int skillLevel = starterSkills.levels.get(skill);
 
     int hit = rollHit(starter, target, skillLevel, bodyPart);
+    WorldManager.entityHelpers.makeNoise(starter, MapSound.COMBAT);
 
     if (hit > 0) {
       if (ComponentMappers.player.has(starter)) {
@@ -9,12 +9,14 @@ import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.*;
 import me.dannytatom.xibalba.components.statuses.CharmedComponent;
 import me.dannytatom.xibalba.components.statuses.PoisonedComponent;
+import me.dannytatom.xibalba.systems.TurnSystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.Map;
 import me.dannytatom.xibalba.world.MapCell;
 import me.dannytatom.xibalba.world.ShadowCaster;
 import me.dannytatom.xibalba.world.WorldManager;
 
+import java.util.ArrayList;
 import java.util.Objects;
 
 public class EntityHelpers {
@@ -60,8 +62,8 @@ public class EntityHelpers {
     PositionComponent entityPosition = ComponentMappers.position.get(entity);
 
     return entityPosition != null
-      && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).hidden
-      && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).forgotten;
+      && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).isHidden()
+      && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).isForgotten();
   }
 
   /**
@@ -91,36 +93,99 @@ public class EntityHelpers {
   }
 
   /**
-   * Update an entity's senses.
+   * Let an entity's senses know they're out of date. The player's get worked out straight away,
+   * since the renderer needs them every frame. Everyone else gets picked up by PerceptionSystem
+   * at the end of the turn, or whenever something asks what they can see or hear before then.
    *
    * @param entity The entity
    */
   public void updateSenses(Entity entity) {
-    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
-    PositionComponent position = ComponentMappers.position.get(entity);
+    ComponentMappers.attributes.get(entity).sensesDirty = true;
 
-    float[][] fovMap = WorldManager.mapHelpers.createFovMap();
+    if (ComponentMappers.player.has(entity)) {
+      AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+      PositionComponent position = ComponentMappers.position.get(entity);
+      Map map = WorldManager.world.getCurrentMap();
 
-    attributes.hearingMap = caster.calculateFov(
-      fovMap, (int) position.pos.x, (int) position.pos.y, attributes.hearing
-    );
+      calculateSenses(entity, caster);
 
-    if (!Main.debug.fieldOfViewEnabled && ComponentMappers.player.has(entity)) {
-      Map map = WorldManager.world.getCurrentMap();
-      float[][] visionMap = new float[map.width][map.height];
+      // Exploration only changes when the player's vision does
+      int radius = Main.debug.fieldOfViewEnabled
+        ? attributes.vision : Math.max(map.width, map.height);
 
-      for (int x = 0; x < map.width; x++) {
-        for (int y = 0; y < map.height; y++) {
-          visionMap[x][y] = 1;
-        }
-      }
+      map.updateExploration(
+        attributes.visionMap, (int) position.pos.x, (int) position.pos.y, radius
+      );
+    }
+  }
+
+  // Only recalculates if they've moved since last time
+  private void ensureSenses(Entity entity) {
+    if (ComponentMappers.attributes.get(entity).sensesDirty) {
+      calculateSenses(entity, caster);
+    }
+  }
+
+  /**
+   * Work out an entity's vision. Only touches the entity's own vision map and reads the map's
+   * opacity, so different entities can be done on different threads as long as each has its own
+   * caster. Hearing comes from the map's sound instead.
+   *
+   * @param entity The entity
+   * @param caster Caster to use
+   */
+  public void calculateSenses(Entity entity, ShadowCaster caster) {
+    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+    PositionComponent position = ComponentMappers.position.get(entity);
+    Map map = WorldManager.world.getCurrentMap();
 
-      attributes.visionMap = visionMap;
+    if (!Main.debug.fieldOfViewEnabled && ComponentMappers.player.has(entity)) {
+      attributes.visionMap.fill(1);
     } else {
-      attributes.visionMap = caster.calculateFov(
-        fovMap, (int) position.pos.x, (int) position.pos.y, attributes.vision
+      attributes.visionMap.cast(
+        caster, map, (int) position.pos.x, (int) position.pos.y, attributes.vision
       );
     }
+
+    attributes.sensesDirty = false;
+  }
+
+  /**
+   * Could an entity's vision reach the target, ignoring walls?
+   *
+   * @param entity Who's looking
+   * @param target What they're looking for
+   * @return Whether it's close enough
+   */
+  public boolean withinSight(Entity entity, Entity target) {
+    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+    PositionComponent targetPosition = ComponentMappers.position.get(target);
+
+    return !outOfReach(entity, targetPosition, attributes.vision);
+  }
+
+  /**
+   * Make some noise where an entity is standing. Gets heard at the end of the turn.
+   *
+   * @param entity Who's making it
+   * @param volume How loud, see MapSound
+   */
+  public void makeNoise(Entity entity, int volume) {
+    PositionComponent position = ComponentMappers.position.get(entity);
+
+    if (position != null) {
+      int cellX = (int) position.pos.x;
+      int cellY = (int) position.pos.y;
+
+      WorldManager.world.getCurrentMap().sound.emit(entity, cellX, cellY, volume);
+
+      // Anyone parked nearby needs a turn to hear it
+      TurnSystem turns = WorldManager.engine.getSystem(TurnSystem.class);
+
+      if (turns != null) {
+        turns.wakeAround(cellX, cellY, volume);
+      }
+    }
   }
 
   /**
@@ -138,10 +203,38 @@ public class EntityHelpers {
     AttributesComponent attributes = ComponentMappers.attributes.get(looker);
     PositionComponent targetPosition = ComponentMappers.position.get(target);
 
+    if (outOfReach(looker, targetPosition, attributes.vision)) {
+      return false;
+    }
+
+    ensureSenses(looker);
+
     int cellX = (int) targetPosition.pos.x;
     int cellY = (int) targetPosition.pos.y;
 
-    return attributes.visionMap[cellX][cellY] > 0;
+    return attributes.visionMap.get(cellX, cellY) > 0;
+  }
+
+  /**
+   * Is the target further away than a sense could possibly reach? Lets us skip working out senses
+   * for anything that's nowhere near what it's looking for. The player always has their senses
+   * worked out, and might not have a limit at all if field of view is off.
+   *
+   * @param entity         Who's sensing
+   * @param targetPosition Where they're sensing
+   * @param radius         How far the sense goes
+   * @return Whether it's out of reach
+   */
+  private boolean outOfReach(Entity entity, PositionComponent targetPosition, int radius) {
+    if (ComponentMappers.player.has(entity)) {
+      return false;
+    }
+
+    PositionComponent position = ComponentMappers.position.get(entity);
+    float deltaX = targetPosition.pos.x - position.pos.x;
+    float deltaY = targetPosition.pos.y - position.pos.y;
+
+    return deltaX * deltaX + deltaY * deltaY > radius * radius;
   }
 
   /**
@@ -155,7 +248,7 @@ public class EntityHelpers {
   }
 
   /**
-   * Check if an entity can hear another entity.
+   * Check if an entity heard another entity make any noise last turn.
    *
    * @param listener Who listening
    * @param target   Who they listening for
@@ -163,9 +256,11 @@ public class EntityHelpers {
    */
   public boolean canHear(Entity listener, Entity target) {
     AttributesComponent attributes = ComponentMappers.attributes.get(listener);
-    PositionComponent targetPosition = ComponentMappers.position.get(target);
+    PositionComponent position = ComponentMappers.position.get(listener);
 
-    return attributes.hearingMap[(int) targetPosition.pos.x][(int) targetPosition.pos.y] > 0;
+    return WorldManager.world.getCurrentMap().sound.canHear(
+      (int) position.pos.x, (int) position.pos.y, target, attributes.hearing
+    );
   }
 
   /**
@@ -174,7 +269,7 @@ public class EntityHelpers {
    * @param entity Who listening
    * @return Yes/no
    */
-  private boolean canHearPlayer(Entity entity) {
+  public boolean canHearPlayer(Entity entity) {
     return canHear(entity, WorldManager.player);
   }
 
@@ -194,15 +289,16 @@ public class EntityHelpers {
 
   public boolean enemyInSight(Entity entity) {
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
-    float[][] vision = attributes.visionMap;
+    PositionComponent position = ComponentMappers.position.get(entity);
 
-    for (int x = 0; x < vision.length; x++) {
-      for (int y = 0; y < vision[x].length; y++) {
-        Entity enemy = WorldManager.mapHelpers.getEnemyAt(x, y);
+    ArrayList<Entity> nearby = WorldManager.mapHelpers.getEntitiesIn(
+      (int) position.pos.x - attributes.vision, (int) position.pos.y - attributes.vision,
+      attributes.vision * 2 + 1, attributes.vision * 2 + 1
+    );
 
-        if (enemy != null && canSee(entity, enemy)) {
-          return true;
-        }
+    for (Entity enemy : nearby) {
+      if (ComponentMappers.enemy.has(enemy) && canSee(entity, enemy)) {
+        return true;
       }
     }
 
@@ -280,6 +376,7 @@ public class EntityHelpers {
       entity.add(new PositionComponent((int) cellX, (int) cellY));
     } else {
       ComponentMappers.position.get(entity).pos.set(cellX, cellY);
+      WorldManager.spatialIndex.update(entity);
     }
   }
 
@@ -298,7 +395,7 @@ public class EntityHelpers {
     MapCell cell = WorldManager.mapHelpers.getCell(cellX, cellY);
 
     if (cell.isWater()) {
-      Color tinted = visual.color.cpy().lerp(cell.sprite.getColor(), .5f);
+      Color tinted = visual.color.cpy().lerp(cell.getTint(), .5f);
 
       if (visual.sprite.getColor() != tinted) {
         visual.sprite.setColor(tinted);
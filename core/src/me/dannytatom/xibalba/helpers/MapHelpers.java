@@ -1,11 +1,10 @@
 package me.dannytatom.xibalba.helpers;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import me.dannytatom.xibalba.components.*;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.Map;
@@ -31,11 +30,10 @@ public class MapHelpers {
    * @return If it does indeed exist
    */
   public boolean cellExists(int cellX, int cellY) {
-    MapCell[][] map = WorldManager.world.getCurrentMap().getCellMap();
+    Map map = WorldManager.world.getCurrentMap();
 
-    return cellX > 0 && cellX < map.length
-      && cellY > 0 && cellY < map[0].length
-      && getCell(cellX, cellY) != null;
+    return cellX > 0 && cellX < map.width
+      && cellY > 0 && cellY < map.height;
   }
 
   public boolean cellExists(Vector2 position) {
@@ -43,7 +41,7 @@ public class MapHelpers {
   }
 
   public MapCell getCell(int mapIndex, int cellX, int cellY) {
-    return WorldManager.world.getMap(mapIndex).getCellMap()[cellX][cellY];
+    return WorldManager.world.getMap(mapIndex).getCell(cellX, cellY);
   }
 
   public MapCell getCell(int mapIndex, Vector2 position) {
@@ -73,30 +71,26 @@ public class MapHelpers {
    * @return Is it blocked?
    */
   public boolean isBlocked(int mapIndex, Vector2 position) {
-    MapCell[][] map = WorldManager.world.getMap(mapIndex).getCellMap();
+    Map map = WorldManager.world.getMap(mapIndex);
+    byte type = map.types[(int) position.x + (int) position.y * map.width];
 
-    boolean blocked = map[(int) position.x][(int) position.y].isWall()
-      || map[(int) position.x][(int) position.y].isNothing();
+    boolean blocked = type == MapCell.WALL || type == MapCell.NOTHING;
 
     if (!blocked) {
-      ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(PositionComponent.class).get());
+      Array<Entity> entities =
+        WorldManager.spatialIndex.get((int) position.x, (int) position.y);
 
-      for (Entity entity : entities) {
-        PositionComponent ep = ComponentMappers.position.get(entity);
+      for (int i = 0; i < entities.size; i++) {
+        Entity entity = entities.get(i);
 
-        if (ep != null && ep.pos.epsilonEquals(position, 0.00001f)) {
-          if (ComponentMappers.decoration.has(entity)) {
-            if (ComponentMappers.decoration.get(entity).blocks) {
-              blocked = true;
-              break;
-            }
-          } else if (ComponentMappers.trap.has(entity)) {
-            blocked = false;
-          } else {
+        if (ComponentMappers.decoration.has(entity)) {
+          if (ComponentMappers.decoration.get(entity).blocks) {
             blocked = true;
             break;
           }
+        } else if (!ComponentMappers.trap.has(entity)) {
+          blocked = true;
+          break;
         }
       }
     }
@@ -128,34 +122,6 @@ public class MapHelpers {
     return cells;
   }
 
-  /**
-   * Create a Field of View map for given map.
-   *
-   * @param mapIndex Which map to use
-   * @return FoV map
-   */
-  public float[][] createFovMapFor(int mapIndex) {
-    Map map = WorldManager.world.getMap(mapIndex);
-    float[][] resistanceMap = new float[map.width][map.height];
-
-    for (int x = 0; x < map.width; x++) {
-      for (int y = 0; y < map.height; y++) {
-        resistanceMap[x][y] = (getCell(x, y).isWall() || getCell(x, y).isNothing()) ? 1 : 0;
-      }
-    }
-
-    return resistanceMap;
-  }
-
-  /**
-   * Get starting light world. 1 is blocked, 0 is not.
-   *
-   * @return Resistance world
-   */
-  public float[][] createFovMap() {
-    return createFovMapFor(WorldManager.world.currentMapIndex);
-  }
-
   /**
    * Create path for targeting (used for throwing weapons).
    *
@@ -173,7 +139,7 @@ public class MapHelpers {
         boolean canTarget = cellExists(new Vector2(x, y))
           && !getCell(x, y).isWall()
           && !getCell(x, y).isNothing()
-          && !getCell(x, y).hidden;
+          && !getCell(x, y).isHidden();
 
         cells[x][y] = new GridCell(x, y, canTarget);
       }
@@ -230,10 +196,10 @@ public class MapHelpers {
 
         if (careAboutWalls) {
           canTarget = cellExists(new Vector2(x, y))
-            && !getCell(x, y).hidden
+            && !getCell(x, y).isHidden()
             && !getCell(x, y).isWall();
         } else {
-          canTarget = cellExists(new Vector2(x, y)) && !getCell(x, y).hidden;
+          canTarget = cellExists(new Vector2(x, y)) && !getCell(x, y).isHidden();
         }
 
         cells[x][y] = new GridCell(x, y, canTarget);
@@ -282,15 +248,12 @@ public class MapHelpers {
    * @return Either the entity or null if none were found
    */
   public Entity getEntityAt(float cellX, float cellY) {
-    ImmutableArray<Entity> entities =
-      WorldManager.engine.getEntitiesFor(
-        Family.all(PositionComponent.class).exclude(DecorationComponent.class).get()
-      );
+    Array<Entity> entities = WorldManager.spatialIndex.get((int) cellX, (int) cellY);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.x == cellX && entityPosition.pos.y == cellY) {
+      if (!ComponentMappers.decoration.has(entity)) {
         return entity;
       }
     }
@@ -305,17 +268,45 @@ public class MapHelpers {
    * @return ArrayList of entities
    */
   public ArrayList<Entity> getEntitiesAt(Vector2 position) {
-    ArrayList<Entity> list = new ArrayList<>();
+    Array<Entity> entities = WorldManager.spatialIndex.get((int) position.x, (int) position.y);
+    ArrayList<Entity> list = new ArrayList<>(entities.size);
 
-    ImmutableArray<Entity> entities =
-      WorldManager.engine.getEntitiesFor(Family.all(PositionComponent.class).get());
+    for (int i = 0; i < entities.size; i++) {
+      list.add(entities.get(i));
+    }
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    return list;
+  }
 
-      if (entityPosition != null && entityPosition.pos.epsilonEquals(position, 0.00001f)) {
-        list.add(entity);
-      }
+  /**
+   * Is there anything at all at a given position? Cheaper than getEntitiesAt if that's all you
+   * need to know.
+   *
+   * @param cellX x
+   * @param cellY y
+   * @return Whether there's something there
+   */
+  public boolean hasEntitiesAt(int cellX, int cellY) {
+    return WorldManager.spatialIndex.get(cellX, cellY).size > 0;
+  }
+
+  /**
+   * Get all entities inside a rectangle.
+   *
+   * @param cellX  x of the bottom left cell
+   * @param cellY  y of the bottom left cell
+   * @param width  How many cells wide
+   * @param height How many cells tall
+   * @return ArrayList of entities
+   */
+  public ArrayList<Entity> getEntitiesIn(int cellX, int cellY, int width, int height) {
+    Array<Entity> found = new Array<>();
+    WorldManager.spatialIndex.get(cellX, cellY, width, height, found);
+
+    ArrayList<Entity> list = new ArrayList<>(found.size);
+
+    for (Entity entity : found) {
+      list.add(entity);
     }
 
     return list;
@@ -339,13 +330,12 @@ public class MapHelpers {
    * @return Either an enemy or null if none were found
    */
   public Entity getEnemyAt(int cellX, int cellY) {
-    ImmutableArray<Entity> entities =
-      WorldManager.engine.getEntitiesFor(Family.all(EnemyComponent.class).get());
+    Array<Entity> entities = WorldManager.spatialIndex.get(cellX, cellY);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.x == cellX && entityPosition.pos.y == cellY) {
+      if (ComponentMappers.enemy.has(entity)) {
         return entity;
       }
     }
@@ -364,16 +354,14 @@ public class MapHelpers {
     PositionComponent position = ComponentMappers.position.get(WorldManager.player);
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    int positionX = (int) position.pos.x;
-    int positionY = (int) position.pos.y;
-
-    for (int x = positionX - attributes.vision; x < positionX + attributes.vision; x++) {
-      for (int y = positionY - attributes.vision; y < positionY + attributes.vision; y++) {
-        Entity enemy = getEnemyAt(x, y);
+    ArrayList<Entity> nearby = getEntitiesIn(
+      (int) position.pos.x - attributes.vision, (int) position.pos.y - attributes.vision,
+      attributes.vision * 2, attributes.vision * 2
+    );
 
-        if (enemy != null) {
-          enemies.add(enemy);
-        }
+    for (Entity entity : nearby) {
+      if (ComponentMappers.enemy.has(entity)) {
+        enemies.add(entity);
       }
     }
 
@@ -396,15 +384,12 @@ public class MapHelpers {
    * @return The trap if one is found, null if not
    */
   public Entity getTrapAt(Vector2 position) {
-    ImmutableArray<Entity> entities =
-      WorldManager.engine.getEntitiesFor(
-        Family.all(TrapComponent.class).get()
-      );
+    Array<Entity> entities = WorldManager.spatialIndex.get((int) position.x, (int) position.y);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.epsilonEquals(position, 0.00001f)) {
+      if (ComponentMappers.trap.has(entity)) {
         return entity;
       }
     }
@@ -444,7 +429,6 @@ public class MapHelpers {
    */
   public Vector2 getRandomOpenPositionOnLand(int index) {
     Map map = WorldManager.world.getMap(index);
-    MapCell[][] cellMap = map.getCellMap();
 
     int cellX = 0;
     int cellY = 0;
@@ -455,7 +439,7 @@ public class MapHelpers {
       cellX = MathUtils.random(0, map.width - 1);
       cellY = MathUtils.random(0, map.height - 1);
 
-      if (cellMap[cellX][cellY].isFloor()) {
+      if (map.types[cellX + cellY * map.width] == MapCell.FLOOR) {
         searching = false;
       }
     }
@@ -474,7 +458,6 @@ public class MapHelpers {
 
   public Vector2 getRandomOpenPositionInWater(int index) {
     Map map = WorldManager.world.getMap(index);
-    MapCell[][] cellMap = map.getCellMap();
 
     int cellX = 0;
     int cellY = 0;
@@ -485,7 +468,7 @@ public class MapHelpers {
       cellX = MathUtils.random(0, map.width - 1);
       cellY = MathUtils.random(0, map.height - 1);
 
-      if (cellMap[cellX][cellY].isDeepWater()) {
+      if (map.types[cellX + cellY * map.width] == MapCell.DEEP_WATER) {
         searching = false;
       }
     }
@@ -508,7 +491,7 @@ public class MapHelpers {
   public int getWallNeighbours(int mapIndex, int cellX, int cellY) {
     int count = 0;
 
-    MapCell.Type[][] geometry = WorldManager.world.getMap(mapIndex).geometry;
+    Map map = WorldManager.world.getMap(mapIndex);
 
     for (int i = -1; i < 2; i++) {
       for (int j = -1; j < 2; j++) {
@@ -516,8 +499,10 @@ public class MapHelpers {
         int ny = cellY + j;
 
         if (i != 0 || j != 0) {
-          if (nx >= 0 && ny >= 0 && nx < geometry.length && ny < geometry[0].length) {
-            if (geometry[nx][ny] == MapCell.Type.WALL) {
+          if (nx >= 0 && ny >= 0 && nx < map.width && ny < map.height) {
+            byte type = map.types[nx + ny * map.width];
+
+            if (type == MapCell.WALL || type == MapCell.NOTHING) {
               count += 1;
             }
           } else {
@@ -538,22 +523,33 @@ public class MapHelpers {
    * @param position Cell to make wet
    */
   public void makeFloorWet(Vector2 position) {
-    MapCell cell = getCell(position.x, position.y);
+    makeFloorWet((int) position.x, (int) position.y);
+  }
 
-    if (Objects.equals(cell.description, "bridge")) {
+  /**
+   * Make a cell wet, unless it's a bridge.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   */
+  public void makeFloorWet(int cellX, int cellY) {
+    Map map = WorldManager.world.getCurrentMap();
+    int index = cellX + cellY * map.width;
+
+    if (Objects.equals(map.getDescription(index), "bridge")) {
       return;
     }
 
-    cell.sprite.setColor(
-      Colors.get(WorldManager.world.getCurrentMap().type + "FloorWet")
-    );
+    map.stain(index, MapCell.WET);
   }
 
   public void makeFloorBloody(Vector2 position) {
-    getCell(position.x, position.y).sprite.setColor(Colors.get("RED"));
+    Map map = WorldManager.world.getCurrentMap();
+    map.stain((int) position.x + (int) position.y * map.width, MapCell.BLOODY);
   }
 
   public void makeFloorVomit(Vector2 position) {
-    getCell(position.x, position.y).sprite.setColor(Colors.get("YELLOW"));
+    Map map = WorldManager.world.getCurrentMap();
+    map.stain((int) position.x + (int) position.y * map.width, MapCell.VOMIT);
   }
 }
@@ -1,6 +1,7 @@
 package me.dannytatom.xibalba.renderers;
 
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -21,6 +22,7 @@ import me.dannytatom.xibalba.screens.AbilitiesScreen;
 import me.dannytatom.xibalba.screens.CharacterScreen;
 import me.dannytatom.xibalba.screens.MainMenuScreen;
 import me.dannytatom.xibalba.screens.PauseScreen;
+import me.dannytatom.xibalba.systems.BrainSystem;
 import me.dannytatom.xibalba.ui.ActionButton;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.MapCell;
@@ -47,6 +49,7 @@ public class HudRenderer {
   private final VerticalGroup buttonsAndAreaDetails;
   private final VerticalGroup areaDetails;
   private final Table menuButtons;
+  private final Family brains;
   private Dialog deathDialog;
   private boolean deathDialogShowing = false;
 
@@ -67,6 +70,8 @@ public class HudRenderer {
     playerAttributes = ComponentMappers.attributes.get(player);
     playerPosition = ComponentMappers.position.get(player);
 
+    brains = Family.all(BrainComponent.class, PositionComponent.class).get();
+
     Table topTable = new Table();
     topTable.top().left();
     topTable.setFillParent(true);
@@ -240,18 +245,22 @@ public class HudRenderer {
     String performanceInfo = "";
     String positionInfo = "";
     String dijkstraInfo = "";
+    String brainInfo = "";
 
     if (Main.debug.debugEnabled) {
       performanceInfo = "[DARK_GRAY]v0.1.0 FPS " + Gdx.graphics.getFramesPerSecond();
 
       positionInfo = "[DARK_GRAY]" + playerPosition.pos.toString()
         + (playerDetails.target != null ? ", " + playerDetails.target.toString() : "");
+
+      brainInfo = createBrainInfo();
     }
 
     if (gameInfo.getChildren().size == 0) {
       gameInfo.addActor(new Label(performanceInfo, Main.skin));
       gameInfo.addActor(new Label(positionInfo, Main.skin));
       gameInfo.addActor(new Label(dijkstraInfo, Main.skin));
+      gameInfo.addActor(new Label(brainInfo, Main.skin));
     } else {
       Label performanceInfoLabel = (Label) gameInfo.getChildren().get(0);
       performanceInfoLabel.setText(performanceInfo);
@@ -259,9 +268,34 @@ public class HudRenderer {
       positionInfoLabel.setText(positionInfo);
       Label dijkstraInfoLabel = (Label) gameInfo.getChildren().get(2);
       dijkstraInfoLabel.setText(dijkstraInfo);
+      Label brainInfoLabel = (Label) gameInfo.getChildren().get(3);
+      brainInfoLabel.setText(brainInfo);
     }
   }
 
+  // How many monsters are in each AI tier, and where the tiers start
+  private String createBrainInfo() {
+    int near = 0;
+    int mid = 0;
+    int far = 0;
+
+    for (Entity entity : WorldManager.engine.getEntitiesFor(brains)) {
+      switch (BrainSystem.detailFor(entity)) {
+        case NEAR:
+          near += 1;
+          break;
+        case MID:
+          mid += 1;
+          break;
+        default:
+          far += 1;
+      }
+    }
+
+    return "[DARK_GRAY]AI " + near + " near (<=" + Main.debug.aiNearRadius + "), "
+      + mid + " mid, " + far + " far (>" + Main.debug.aiFarRadius + ")";
+  }
+
   private void updateActionLog() {
     for (int i = 0; i < WorldManager.log.actions.size(); i++) {
       String action = WordUtils.wrap(WorldManager.log.actions.get(i), 50);
@@ -319,7 +353,7 @@ public class HudRenderer {
       }
 
       MapCell cell = WorldManager.mapHelpers.getCell(playerPosition.pos.x, playerPosition.pos.y);
-      String cellDescription = "You stand on " + cell.description;
+      String cellDescription = "You stand on " + cell.getDescription();
 
       Label placeholder = (Label) areaDetails.getChildren().get(0);
       placeholder.setText(null);
@@ -334,10 +368,10 @@ public class HudRenderer {
         = WorldManager.mapHelpers.getCell(playerDetails.target.x, playerDetails.target.y);
       String cellDescription;
 
-      if (cell.forgotten) {
-        cellDescription = "You remember seeing " + cell.description;
+      if (cell.isForgotten()) {
+        cellDescription = "You remember seeing " + cell.getDescription();
       } else {
-        cellDescription = "You see " + cell.description;
+        cellDescription = "You see " + cell.getDescription();
       }
 
       Entity entity
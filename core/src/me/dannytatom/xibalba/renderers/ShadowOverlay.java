@@ -0,0 +1,189 @@
+package me.dannytatom.xibalba.renderers;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Disposable;
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.Map;
+import me.dannytatom.xibalba.world.MapLight;
+import me.dannytatom.xibalba.world.WorldManager;
+
+/**
+ * Fog of war and light for the whole map, one pixel per cell, stretched over the map in a single
+ * draw. Only the cells on screen get rebuilt and uploaded, and only when the player's vision, the
+ * lights or the turn changes, or the camera moves on to cells that weren't done last time.
+ * </p>
+ * Each pixel is the light blended over the shadow, so drawing it once looks the same as drawing
+ * a shadow and then a light on every cell.
+ */
+class ShadowOverlay implements Disposable {
+  private final Map map;
+  private final Texture texture;
+  private final Color background;
+  private Pixmap window;
+
+  private int visionVersion = -1;
+  private int lightVersion = -1;
+  private int turn = -1;
+  private int fromX = -1;
+  private int fromY = -1;
+  private int toX = -1;
+  private int toY = -1;
+
+  /**
+   * Make an overlay for a map.
+   *
+   * @param map The map
+   */
+  ShadowOverlay(Map map) {
+    this.map = map;
+
+    texture = new Texture(map.width, map.height, Pixmap.Format.RGBA8888);
+    texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+
+    background = Colors.get(map.type + "Background");
+  }
+
+  /**
+   * Rebuild the cells on screen if anything they depend on has changed.
+   *
+   * @param startX First visible column
+   * @param startY First visible row
+   * @param endX   Column after the last visible one
+   * @param endY   Row after the last visible one
+   */
+  void update(int startX, int startY, int endX, int endY) {
+    int lights = map.light == null ? 0 : map.light.version;
+
+    if (map.visionVersion == visionVersion && lights == lightVersion
+      && WorldManager.turnCount == turn
+      && startX == fromX && startY == fromY && endX == toX && endY == toY) {
+      return;
+    }
+
+    visionVersion = map.visionVersion;
+    lightVersion = lights;
+    turn = WorldManager.turnCount;
+    fromX = startX;
+    fromY = startY;
+    toX = endX;
+    toY = endY;
+
+    if (endX <= startX || endY <= startY) {
+      return;
+    }
+
+    if (window == null || window.getWidth() != endX - startX
+      || window.getHeight() != endY - startY) {
+      if (window != null) {
+        window.dispose();
+      }
+
+      window = new Pixmap(endX - startX, endY - startY, Pixmap.Format.RGBA8888);
+      window.setBlending(Pixmap.Blending.None);
+    }
+
+    AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
+    boolean perceptive = WorldManager.entityHelpers.hasTrait(WorldManager.player, "Perceptive");
+    boolean lit = map.light != null && map.light.hasLights() && map.light.lights != null;
+    float[] lightBuffer = lit ? map.light.lights : null;
+
+    for (int x = startX; x < endX; x++) {
+      for (int y = startY; y < endY; y++) {
+        int index = x + y * map.width;
+
+        // Pixmaps go top down, maps go bottom up
+        int pixelX = x - startX;
+        int pixelY = endY - 1 - y;
+
+        if (!map.explored.get(index)) {
+          window.drawPixel(pixelX, pixelY, 0);
+          continue;
+        }
+
+        float shadowAlpha = shadowAt(attributes, perceptive, x, y);
+        float lightAlpha = 0;
+        float red = 0;
+        float green = 0;
+        float blue = 0;
+
+        if (lit && map.visible.get(index)) {
+          int offset = index * MapLight.STRIDE;
+          float brightness = lightBuffer[offset + MapLight.BRIGHTNESS];
+
+          if (brightness > 0) {
+            lightAlpha = (brightness > .5f ? .9f : brightness) / 10;
+            red = lightBuffer[offset];
+            green = lightBuffer[offset + 1];
+            blue = lightBuffer[offset + 2];
+          }
+        }
+
+        // Light drawn over shadow
+        float alpha = lightAlpha + shadowAlpha * (1 - lightAlpha);
+
+        if (alpha <= 0) {
+          window.drawPixel(pixelX, pixelY, 0);
+          continue;
+        }
+
+        float shadowWeight = shadowAlpha * (1 - lightAlpha);
+
+        window.drawPixel(pixelX, pixelY, Color.rgba8888(
+          (red * lightAlpha + background.r * shadowWeight) / alpha,
+          (green * lightAlpha + background.g * shadowWeight) / alpha,
+          (blue * lightAlpha + background.b * shadowWeight) / alpha,
+          alpha
+        ));
+      }
+    }
+
+    // Texture rows go top down too
+    texture.draw(window, startX, map.height - endY);
+  }
+
+  /**
+   * Draw it stretched over the whole map.
+   *
+   * @param batch Batch to draw with
+   */
+  void draw(Batch batch) {
+    batch.setColor(Color.WHITE);
+    batch.draw(texture, 0, 0, map.width * Main.SPRITE_WIDTH, map.height * Main.SPRITE_HEIGHT);
+  }
+
+  // How dark a cell is, the more the player can see it the lighter it gets
+  private float shadowAt(AttributesComponent attributes, boolean perceptive, int cellX, int cellY) {
+    if (perceptive) {
+      Entity enemy = WorldManager.mapHelpers.getEnemyAt(cellX, cellY);
+
+      if (enemy != null && WorldManager.entityHelpers.canHear(WorldManager.player, enemy)) {
+        return 0;
+      }
+    }
+
+    float visibility = attributes.visionMap.get(cellX, cellY);
+
+    if (map.light != null && map.light.hasLights() && visibility > 0) {
+      float brightness = map.light.getBrightness(cellX, cellY);
+      visibility = visibility + brightness > 1 ? .9f : visibility + brightness;
+    }
+
+    return 1 - Math.max(visibility, .15f);
+  }
+
+  @Override
+  public void dispose() {
+    texture.dispose();
+
+    if (window != null) {
+      window.dispose();
+    }
+  }
+}
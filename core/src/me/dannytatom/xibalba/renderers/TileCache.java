@@ -0,0 +1,175 @@
+package me.dannytatom.xibalba.renderers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.Disposable;
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.world.Map;
+
+/**
+ * Explored tiles, drawn once into offscreen chunks and then reused every frame. A chunk only gets
+ * drawn again when one of its cells is explored, stained or changes type. Animated tiles (water)
+ * are left out, those still get drawn every frame.
+ * </p>
+ * Chunks are cleared to the map's background, so anything unexplored looks the same as it did
+ * before.
+ */
+class TileCache implements Disposable {
+  static final int CHUNK_SIZE = 16;
+
+  private final Map map;
+  private final Color background;
+  private final int chunksWide;
+  private final int chunksHigh;
+  private final FrameBuffer[] chunks;
+  private final Bits dirty;
+  private final OrthographicCamera camera;
+
+  /**
+   * Make a cache for a map, everything starts dirty.
+   *
+   * @param map The map
+   */
+  TileCache(Map map) {
+    this.map = map;
+
+    background = Colors.get(map.type + "Background");
+    chunksWide = (map.width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    chunksHigh = (map.height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    chunks = new FrameBuffer[chunksWide * chunksHigh];
+    dirty = new Bits(chunks.length);
+
+    for (int i = 0; i < chunks.length; i++) {
+      dirty.set(i);
+    }
+
+    camera = new OrthographicCamera();
+    camera.setToOrtho(false, CHUNK_SIZE * Main.SPRITE_WIDTH, CHUNK_SIZE * Main.SPRITE_HEIGHT);
+
+    // Forget whatever changed before we existed, we're drawing everything anyway
+    map.redraw.clear();
+  }
+
+  /**
+   * Redraw dirty chunks the camera can see. Has to be called outside of batch.begin and end, and
+   * leaves the batch's projection matrix pointing at the last chunk.
+   *
+   * @param batch  Batch to draw with
+   * @param startX First visible cell
+   * @param startY First visible cell
+   * @param endX   Last visible cell, exclusive
+   * @param endY   Last visible cell, exclusive
+   */
+  void update(Batch batch, int startX, int startY, int endX, int endY) {
+    Bits redraw = map.redraw;
+
+    for (int index = redraw.nextSetBit(0); index != -1; index = redraw.nextSetBit(index + 1)) {
+      dirty.set(chunkAt(index % map.width, index / map.width));
+    }
+
+    redraw.clear();
+
+    for (int chunkX = startX / CHUNK_SIZE; chunkX <= (endX - 1) / CHUNK_SIZE; chunkX++) {
+      for (int chunkY = startY / CHUNK_SIZE; chunkY <= (endY - 1) / CHUNK_SIZE; chunkY++) {
+        int chunk = chunkX + chunkY * chunksWide;
+
+        if (dirty.getAndClear(chunk)) {
+          rebuild(batch, chunkX, chunkY);
+        }
+      }
+    }
+  }
+
+  /**
+   * Draw every chunk the camera can see.
+   *
+   * @param batch  Batch to draw with
+   * @param startX First visible cell
+   * @param startY First visible cell
+   * @param endX   Last visible cell, exclusive
+   * @param endY   Last visible cell, exclusive
+   */
+  void draw(Batch batch, int startX, int startY, int endX, int endY) {
+    int width = CHUNK_SIZE * Main.SPRITE_WIDTH;
+    int height = CHUNK_SIZE * Main.SPRITE_HEIGHT;
+
+    batch.setColor(Color.WHITE);
+
+    for (int chunkX = startX / CHUNK_SIZE; chunkX <= (endX - 1) / CHUNK_SIZE; chunkX++) {
+      for (int chunkY = startY / CHUNK_SIZE; chunkY <= (endY - 1) / CHUNK_SIZE; chunkY++) {
+        FrameBuffer buffer = chunks[chunkX + chunkY * chunksWide];
+
+        if (buffer == null) {
+          continue;
+        }
+
+        // Frame buffers come out upside down
+        batch.draw(
+          buffer.getColorBufferTexture(), chunkX * width, chunkY * height, width, height,
+          0, 0, width, height, false, true
+        );
+      }
+    }
+  }
+
+  private int chunkAt(int cellX, int cellY) {
+    return cellX / CHUNK_SIZE + (cellY / CHUNK_SIZE) * chunksWide;
+  }
+
+  private void rebuild(Batch batch, int chunkX, int chunkY) {
+    int chunk = chunkX + chunkY * chunksWide;
+    int width = CHUNK_SIZE * Main.SPRITE_WIDTH;
+    int height = CHUNK_SIZE * Main.SPRITE_HEIGHT;
+
+    if (chunks[chunk] == null) {
+      chunks[chunk] = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+      chunks[chunk].getColorBufferTexture().setFilter(
+        Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest
+      );
+    }
+
+    camera.position.set(chunkX * width + width / 2, chunkY * height + height / 2, 0);
+    camera.update();
+
+    chunks[chunk].begin();
+
+    Gdx.gl.glClearColor(background.r, background.g, background.b, 1);
+    Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+    batch.setProjectionMatrix(camera.combined);
+    batch.begin();
+
+    int endX = Math.min(map.width, (chunkX + 1) * CHUNK_SIZE);
+    int endY = Math.min(map.height, (chunkY + 1) * CHUNK_SIZE);
+
+    for (int x = chunkX * CHUNK_SIZE; x < endX; x++) {
+      for (int y = chunkY * CHUNK_SIZE; y < endY; y++) {
+        int index = x + y * map.width;
+
+        if (map.explored.get(index) && !map.isAnimated(index)) {
+          map.draw(batch, x, y);
+        }
+      }
+    }
+
+    batch.end();
+    chunks[chunk].end();
+  }
+
+  @Override
+  public void dispose() {
+    for (FrameBuffer chunk : chunks) {
+      if (chunk != null) {
+        chunk.dispose();
+      }
+    }
+  }
+}
@@ -16,25 +16,37 @@ import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.*;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.Map;
-import me.dannytatom.xibalba.world.MapCell;
 import me.dannytatom.xibalba.world.WorldManager;
 import org.apache.commons.lang3.ArrayUtils;
 import org.xguzm.pathfinding.grid.GridCell;
 
 public class WorldRenderer {
+  // Extra cells drawn around the edges, so the camera lerping and shaking never shows a gap
+  private static final int CULL_MARGIN = 2;
+
   private final SpriteBatch batch;
   private final BitmapFont font;
   private final Viewport viewport;
   private final OrthographicCamera worldCamera;
 
   private final PlayerComponent playerDetails;
-  private final AttributesComponent playerAttributes;
   private final PositionComponent playerPosition;
 
   // These get reused a ton
   private final Sprite shadow;
   private final Sprite question;
 
+  // Cached tiles, and fog and light for the whole map, both tied to the map they were made for
+  private TileCache tiles;
+  private ShadowOverlay overlay;
+  private Map cachedMap;
+
+  // Cells the camera can see this frame, end is exclusive
+  private int visibleStartX;
+  private int visibleStartY;
+  private int visibleEndX;
+  private int visibleEndY;
+
   /**
    * Setup world renderer.
    *
@@ -48,7 +60,6 @@ public class WorldRenderer {
     viewport = new FitViewport(960, 540, worldCamera);
 
     playerDetails = ComponentMappers.player.get(WorldManager.player);
-    playerAttributes = ComponentMappers.attributes.get(WorldManager.player);
     playerPosition = ComponentMappers.position.get(WorldManager.player);
 
     shadow = Main.asciiAtlas.createSprite("1113");
@@ -70,6 +81,8 @@ public class WorldRenderer {
     }
 
     worldCamera.update();
+    updateVisibleCells();
+    updateCaches();
 
     batch.setProjectionMatrix(worldCamera.combined);
     batch.begin();
@@ -77,42 +90,85 @@ public class WorldRenderer {
     renderCells();
     renderStairs();
     renderDecorations();
+    renderWeather();
     renderTraps();
     renderItems();
     renderEnemies();
     renderPlayer();
-    renderShadows();
-    renderLights();
+    renderOverlay();
     renderHighlights();
 
     batch.end();
   }
 
+  private void updateVisibleCells() {
+    Map map = WorldManager.world.getCurrentMap();
+
+    float halfWidth = worldCamera.viewportWidth * worldCamera.zoom / 2;
+    float halfHeight = worldCamera.viewportHeight * worldCamera.zoom / 2;
+
+    int startX = (int) Math.floor((worldCamera.position.x - halfWidth) / Main.SPRITE_WIDTH);
+    int startY = (int) Math.floor((worldCamera.position.y - halfHeight) / Main.SPRITE_HEIGHT);
+    int endX = (int) Math.ceil((worldCamera.position.x + halfWidth) / Main.SPRITE_WIDTH);
+    int endY = (int) Math.ceil((worldCamera.position.y + halfHeight) / Main.SPRITE_HEIGHT);
+
+    // The last row and column never get drawn
+    visibleStartX = Math.max(0, startX - CULL_MARGIN);
+    visibleStartY = Math.max(0, startY - CULL_MARGIN);
+    visibleEndX = Math.min(map.width - 1, endX + CULL_MARGIN);
+    visibleEndY = Math.min(map.height - 1, endY + CULL_MARGIN);
+  }
+
+  // Has to happen before the batch begins, since chunks get drawn into their own buffers
+  private void updateCaches() {
+    Map map = WorldManager.world.getCurrentMap();
+
+    // We might've gone up or down
+    if (cachedMap != map) {
+      dispose();
+
+      tiles = new TileCache(map);
+      overlay = new ShadowOverlay(map);
+      cachedMap = map;
+    }
+
+    tiles.update(batch, visibleStartX, visibleStartY, visibleEndX, visibleEndY);
+    overlay.update(visibleStartX, visibleStartY, visibleEndX, visibleEndY);
+
+    // Ending a frame buffer resets the gl viewport to the whole window, losing our letterboxing
+    viewport.apply();
+  }
+
   private void renderCells() {
     Map map = WorldManager.world.getCurrentMap();
 
-    for (int x = 0; x < map.width - 1; x++) {
-      for (int y = 0; y < map.height - 1; y++) {
-        MapCell cell = map.getCellMap()[x][y];
+    tiles.draw(batch, visibleStartX, visibleStartY, visibleEndX, visibleEndY);
 
-        if (playerAttributes.visionMap[x][y] > 0) {
-          cell.hidden = false;
+    Color background = null;
 
-          if (cell.tween != null && !cell.tween.isStarted()) {
-            cell.tween.start(Main.tweenManager);
-          }
+    for (int x = visibleStartX; x < visibleEndX; x++) {
+      for (int y = visibleStartY; y < visibleEndY; y++) {
+        int index = x + y * map.width;
+
+        if (!map.explored.get(index)) {
+          continue;
         }
 
-        if (!cell.hidden) {
-          cell.forgotten = playerAttributes.visionMap[x][y] <= 0;
+        boolean underEntity = map.visible.get(index) && WorldManager.mapHelpers.hasEntitiesAt(x, y);
 
-          if (cell.forgotten) {
-            cell.sprite.draw(batch);
-          } else {
-            if (WorldManager.mapHelpers.getEntitiesAt(new Vector2(x, y)).size() == 0) {
-              cell.sprite.draw(batch);
-            }
+        if (map.isAnimated(index)) {
+          if (!underEntity) {
+            map.draw(batch, x, y);
+          }
+        } else if (underEntity) {
+          // Cover up the cached tile, entities get drawn over the background
+          if (background == null) {
+            background = Colors.get(map.type + "Background");
           }
+
+          shadow.setColor(background);
+          shadow.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
+          shadow.draw(batch);
         }
       }
     }
@@ -146,6 +202,15 @@ public class WorldRenderer {
     }
   }
 
+  private void renderWeather() {
+    Map map = WorldManager.world.getCurrentMap();
+
+    if (map.weather != null && Main.debug.weatherEnabled) {
+      map.weather.setArea(visibleStartX, visibleStartY, visibleEndX, visibleEndY);
+      map.weather.draw(batch);
+    }
+  }
+
   private void renderTraps() {
     ImmutableArray<Entity> entities =
       WorldManager.engine.getEntitiesFor(Family.all(TrapComponent.class).get());
@@ -215,74 +280,8 @@ public class WorldRenderer {
     }
   }
 
-  private void renderShadows() {
-    Map map = WorldManager.world.getCurrentMap();
-
-    for (int x = 0; x < map.width - 1; x++) {
-      for (int y = 0; y < map.height - 1; y++) {
-        MapCell cell = WorldManager.mapHelpers.getCell(x, y);
-
-        if (cell.hidden) {
-          continue;
-        }
-
-        Entity enemy = WorldManager.mapHelpers.getEnemyAt(x, y);
-
-        boolean canHearEnemy = WorldManager.entityHelpers.hasTrait(
-          WorldManager.player, "Perceptive"
-        ) && enemy != null && WorldManager.entityHelpers.canHear(WorldManager.player, enemy);
-
-        if (canHearEnemy) {
-          continue;
-        }
-
-        float alpha = playerAttributes.visionMap[x][y];
-
-        if (map.light.hasLights() && alpha > 0) {
-          if (alpha + map.light.lightMap[x][y] > 1) {
-            alpha = 0.9f;
-          } else {
-            alpha += map.light.lightMap[x][y];
-          }
-        }
-
-        alpha = alpha <= .15f ? .15f : alpha;
-
-        shadow.setColor(Colors.get(WorldManager.world.getCurrentMap().type + "Background"));
-        shadow.setAlpha(-alpha);
-        shadow.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
-
-        shadow.draw(batch);
-      }
-    }
-  }
-
-  private void renderLights() {
-    Map map = WorldManager.world.getCurrentMap();
-
-    if (map.light.hasLights()) {
-      for (int x = 0; x < map.width - 1; x++) {
-        for (int y = 0; y < map.height - 1; y++) {
-          MapCell cell = WorldManager.mapHelpers.getCell(x, y);
-
-          if (cell.hidden || cell.forgotten) {
-            continue;
-          }
-
-          float alpha = map.light.lightMap[x][y];
-
-          if (alpha + map.light.lightMap[x][y] > 1) {
-            alpha = 0.9f;
-          }
-
-          shadow.setColor(map.light.colorMap[x][y]);
-          shadow.setAlpha(alpha / 10);
-          shadow.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
-
-          shadow.draw(batch);
-        }
-      }
-    }
+  private void renderOverlay() {
+    overlay.draw(batch);
   }
 
   private void renderHighlights() {
@@ -299,6 +298,16 @@ public class WorldRenderer {
     }
   }
 
+  /**
+   * Get rid of the cached textures.
+   */
+  public void dispose() {
+    if (tiles != null) {
+      tiles.dispose();
+      overlay.dispose();
+    }
+  }
+
   /**
    * Self-explanatory.
    *
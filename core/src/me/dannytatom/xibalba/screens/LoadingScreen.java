@@ -265,7 +265,9 @@ public class LoadingScreen implements Screen {
 
     // Weather
     if (Objects.equals(level.type, "forest")) {
-      WorldManager.world.getMap(mapIndex).weather = new MapWeather(mapIndex);
+      WorldManager.world.getMap(mapIndex).weather = new MapWeather(
+        mapIndex, Main.debug.weatherDensity
+      );
     }
   }
 
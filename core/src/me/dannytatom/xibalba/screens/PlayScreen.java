@@ -17,6 +17,7 @@ import me.dannytatom.xibalba.PlayerInput;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.renderers.HudRenderer;
 import me.dannytatom.xibalba.renderers.WorldRenderer;
+import me.dannytatom.xibalba.systems.actions.ExploreSystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
@@ -65,7 +66,7 @@ public class PlayScreen implements Screen {
     // Player attributes
     playerAttributes = ComponentMappers.attributes.get(WorldManager.player);
 
-    // Generate all dijkstra maps
+    // Start generating all dijkstra maps, they get swapped in as they finish
     WorldManager.world.getCurrentMap().dijkstra.updateAll();
 
     // Change state to playing
@@ -92,6 +93,12 @@ public class PlayScreen implements Screen {
       autoTimer += delta;
       keyHoldTimer += delta;
 
+      // Swap in any dijkstra maps that finished building
+      WorldManager.world.getCurrentMap().dijkstra.update();
+
+      // Water
+      WorldManager.world.getCurrentMap().animate(delta);
+
       // Light
       WorldManager.world.getCurrentMap().light.update(delta);
 
@@ -114,17 +121,23 @@ public class PlayScreen implements Screen {
         keyHoldTimerDelay = 0;
       }
 
-      // In some cases, we want the game to take turns on it's own
+      // In some cases, we want the game to take turns on it's own. Not while exploring is
+      // waiting on a path though, or monsters would get turns while the player stands still.
       if ((WorldManager.state == WorldManager.State.MOVING
         || WorldManager.state == WorldManager.State.DEAD
         || WorldManager.entityHelpers.shouldSkipTurn(WorldManager.player))
-        && autoTimer >= .10f) {
+        && autoTimer >= .10f
+        && (WorldManager.state != WorldManager.State.MOVING
+        || ExploreSystem.findPath(WorldManager.player))) {
         autoTimer = 0;
         WorldManager.executeTurn = true;
       }
 
-      // Update engine if it's time to execute a turn
-      if (WorldManager.executeTurn) {
+      // Update engine if it's time to execute a turn, or carry on with one that didn't fit in
+      // the last frame
+      if (WorldManager.turnInProgress) {
+        WorldManager.engine.update(delta);
+      } else if (WorldManager.executeTurn) {
         WorldManager.turnCount += 1;
 
         WorldManager.engine.update(delta);
@@ -195,5 +208,6 @@ public class PlayScreen implements Screen {
   @Override
   public void dispose() {
     batch.dispose();
+    worldRenderer.dispose();
   }
 }
@@ -0,0 +1,188 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.brain.Brain;
+import me.dannytatom.xibalba.components.BrainComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
+import me.dannytatom.xibalba.components.statuses.*;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.WorldManager;
+
+/**
+ * Keeps track of who's worth giving a turn to. Monsters that are asleep, or wandering around
+ * somewhere far from the player (past Debug.aiFarRadius), get parked instead of going back into
+ * the turn queue. Anyone with something still to do (an action waiting, or a status ticking away)
+ * is never parked.
+ * </p>
+ * Parked monsters are bucketed by which part of the map they're in, so waking everyone near a
+ * noise or near the player only looks at those buckets, not at every monster on the map.
+ */
+class ActivityManager {
+  static final int NONE = -1;
+
+  private static final int SECTOR_SIZE = 16;
+
+  private final IntMap<Array<Entity>> sectors = new IntMap<>();
+  private final ObjectIntMap<Entity> parked = new ObjectIntMap<>();
+  private final Family busy;
+
+  ActivityManager() {
+    busy = Family.one(
+      BleedingComponent.class, CharmedComponent.class, CrippledComponent.class,
+      DrowningComponent.class, EncumberedComponent.class, PoisonedComponent.class,
+      SickComponent.class, StuckComponent.class, WetComponent.class
+    ).get();
+  }
+
+  private static int key(int sectorX, int sectorY) {
+    return (sectorX & 0xFFFF) << 16 | (sectorY & 0xFFFF);
+  }
+
+  /**
+   * Whether an actor can be left alone for a while, and until when.
+   *
+   * @param entity The actor who just had their turn
+   * @return The turn to wake them up on, or NONE if they should keep getting turns
+   */
+  int dormantUntil(Entity entity) {
+    BrainComponent brain = ComponentMappers.brain.get(entity);
+
+    if (brain == null || isBusy(entity)) {
+      return NONE;
+    }
+
+    if (brain.stateMachine.isInState(Brain.SLEEP)) {
+      return brain.wakeTurn > WorldManager.turnCount + 1 ? brain.wakeTurn : NONE;
+    }
+
+    if (brain.stateMachine.isInState(Brain.WANDER) && farFromPlayer(entity)) {
+      return WorldManager.turnCount + Main.debug.aiFarInterval;
+    }
+
+    return NONE;
+  }
+
+  /**
+   * Whether an actor has something going on that needs seeing to every turn.
+   *
+   * @param entity The actor
+   * @return True if they've got an action waiting or a status ticking away
+   */
+  boolean isBusy(Entity entity) {
+    ActionsComponent actions = ComponentMappers.actions.get(entity);
+
+    return busy.matches(entity) || (actions != null && actions.hasPending());
+  }
+
+  /**
+   * Statuses that need an actor to get every turn.
+   *
+   * @return Family of anyone with one
+   */
+  Family getBusy() {
+    return busy;
+  }
+
+  void clear() {
+    sectors.clear();
+    parked.clear();
+  }
+
+  /**
+   * Park an actor where they're standing.
+   *
+   * @param entity The actor
+   */
+  void park(Entity entity) {
+    PositionComponent position = ComponentMappers.position.get(entity);
+
+    if (position == null) {
+      return;
+    }
+
+    int key = key((int) position.pos.x / SECTOR_SIZE, (int) position.pos.y / SECTOR_SIZE);
+    Array<Entity> sector = sectors.get(key);
+
+    if (sector == null) {
+      sector = new Array<>(false, 16);
+      sectors.put(key, sector);
+    }
+
+    sector.add(entity);
+    parked.put(entity, key);
+  }
+
+  /**
+   * Stop keeping track of an actor, because they're awake or gone.
+   *
+   * @param entity The actor
+   */
+  void forget(Entity entity) {
+    int key = parked.remove(entity, NONE);
+
+    if (key != NONE) {
+      sectors.get(key).removeValue(entity, true);
+    }
+  }
+
+  /**
+   * Wake up everyone parked around a cell.
+   *
+   * @param cellX          Where
+   * @param cellY          Where
+   * @param radius         How far out to look
+   * @param includeSleeper Whether to wake up monsters that are asleep too
+   * @param woken          Everyone woken up gets added to this
+   */
+  void wakeAround(int cellX, int cellY, int radius, boolean includeSleeper, Array<Entity> woken) {
+    int fromX = Math.max(0, cellX - radius) / SECTOR_SIZE;
+    int fromY = Math.max(0, cellY - radius) / SECTOR_SIZE;
+    int toX = (cellX + radius) / SECTOR_SIZE;
+    int toY = (cellY + radius) / SECTOR_SIZE;
+
+    for (int sectorX = fromX; sectorX <= toX; sectorX++) {
+      for (int sectorY = fromY; sectorY <= toY; sectorY++) {
+        Array<Entity> sector = sectors.get(key(sectorX, sectorY));
+
+        if (sector == null) {
+          continue;
+        }
+
+        for (int i = sector.size - 1; i >= 0; i--) {
+          Entity entity = sector.get(i);
+
+          if (includeSleeper
+            || !ComponentMappers.brain.get(entity).stateMachine.isInState(Brain.SLEEP)) {
+            sector.removeIndex(i);
+            parked.remove(entity, NONE);
+            woken.add(entity);
+          }
+        }
+      }
+    }
+  }
+
+  private boolean farFromPlayer(Entity entity) {
+    if (WorldManager.player == null) {
+      return false;
+    }
+
+    PositionComponent position = ComponentMappers.position.get(entity);
+    PositionComponent playerPosition = ComponentMappers.position.get(WorldManager.player);
+
+    if (position == null || playerPosition == null) {
+      return false;
+    }
+
+    float deltaX = playerPosition.pos.x - position.pos.x;
+    float deltaY = playerPosition.pos.y - position.pos.y;
+
+    return deltaX * deltaX + deltaY * deltaY > Main.debug.aiFarRadius * Main.debug.aiFarRadius;
+  }
+}
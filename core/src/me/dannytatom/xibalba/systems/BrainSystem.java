@@ -3,37 +3,114 @@ package me.dannytatom.xibalba.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.math.Vector2;
+import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.BrainComponent;
-import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.components.actions.MovementAction;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.WorldManager;
 
+/**
+ * How much thinking a monster gets depends on how far from the player they are. Near ones think
+ * every turn, ones in the middle only every few turns and just keep walking whatever path they
+ * had in between, and far ones are parked and every so often skip ahead along their path as far
+ * as they'd have gotten. See Debug for where the lines are.
+ */
 public class BrainSystem extends UsesEnergySystem {
   public BrainSystem() {
     super(Family.all(BrainComponent.class, AttributesComponent.class).get());
   }
 
+  /**
+   * Which tier a monster's in.
+   *
+   * @param entity The monster
+   * @return How much detail they get
+   */
+  public static Detail detailFor(Entity entity) {
+    PositionComponent position = ComponentMappers.position.get(entity);
+    PositionComponent playerPosition = ComponentMappers.position.get(WorldManager.player);
+
+    if (position == null || playerPosition == null) {
+      return Detail.NEAR;
+    }
+
+    float distance = position.pos.dst2(playerPosition.pos);
+
+    if (distance <= Main.debug.aiNearRadius * Main.debug.aiNearRadius) {
+      return Detail.NEAR;
+    } else if (distance <= Main.debug.aiFarRadius * Main.debug.aiFarRadius) {
+      return Detail.MID;
+    } else {
+      return Detail.FAR;
+    }
+  }
+
   @Override
   protected void processEntity(Entity entity, float deltaTime) {
     BrainComponent brain = ComponentMappers.brain.get(entity);
+    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+    Detail detail = detailFor(entity);
+    boolean lost = brain.path == null || brain.path.size == 0;
+
+    if (detail == Detail.NEAR || lost || WorldManager.turnCount >= brain.thinkTurn) {
+      brain.stateMachine.update();
+      brain.thinkTurn = WorldManager.turnCount + Main.debug.aiMidInterval;
+    }
 
-    brain.stateMachine.update();
+    int turns = Math.max(1, WorldManager.turnCount - brain.lastTurn);
+    brain.lastTurn = WorldManager.turnCount;
 
     if (brain.fear > 0) {
-      brain.fear -= 0.01;
-    } else if (brain.fear < 0) {
+      brain.fear -= 0.01 * turns;
+    }
+
+    if (brain.fear < 0) {
       brain.fear = 0;
     }
 
-    if (brain.path != null && brain.path.size > 0) {
-      AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+    if (brain.path == null || brain.path.size == 0) {
+      return;
+    }
+
+    if (detail == Detail.FAR && turns > 1) {
+      skipAhead(entity, brain, attributes, turns);
+    } else if (attributes.energy >= MovementAction.COST) {
+      Vector2 cell = brain.path.get(0);
+
+      ComponentMappers.actions.get(entity).move(cell);
+      brain.path.removeIndex(0);
+    }
+  }
 
-      if (attributes.energy >= MovementComponent.COST) {
-        Vector2 cell = brain.path.get(0);
+  // Nobody's around to see them walk, so jump straight to about where they'd be after however
+  // many turns they were parked for. Stays put if something's standing there.
+  //
+  // They only got energy back for this turn, so they're given what they'd have gotten while
+  // parked to pay for the steps, but never end up with more than they started with.
+  private void skipAhead(Entity entity, BrainComponent brain,
+                         AttributesComponent attributes, int turns) {
+    int energy = attributes.energy + (turns - 1) * attributes.speed;
+    int steps = Math.min(brain.path.size, energy / MovementAction.COST);
 
-        entity.add(new MovementComponent(cell));
-        brain.path.removeIndex(0);
-      }
+    if (steps == 0) {
+      return;
     }
+
+    Vector2 cell = brain.path.get(steps - 1);
+
+    if (!WorldManager.mapHelpers.isBlocked(cell)) {
+      WorldManager.entityHelpers.updatePosition(entity, cell.x, cell.y);
+      WorldManager.entityHelpers.updateSprite(entity, cell.x, cell.y);
+      WorldManager.entityHelpers.updateSenses(entity);
+      brain.path.removeRange(0, steps - 1);
+
+      attributes.energy = Math.min(attributes.energy, energy - steps * MovementAction.COST);
+    }
+  }
+
+  public enum Detail {
+    NEAR, MID, FAR
   }
 }
@@ -2,12 +2,17 @@ package me.dannytatom.xibalba.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
-public class DeathSystem extends UsesEnergySystem {
+/**
+ * Runs after everyone's had their turn, so anyone killed this turn goes, whether they'd already
+ * acted or not.
+ */
+public class DeathSystem extends IteratingSystem {
   public DeathSystem() {
     super(Family.all(AttributesComponent.class).get());
   }
@@ -0,0 +1,99 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.ShadowCaster;
+import me.dannytatom.xibalba.world.WorldManager;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Works out vision for everyone who moved this turn, all at once, after movement. Each actor only
+ * writes to its own vision map and everyone reads the same map opacity, so they're split up across
+ * the common fork join pool.
+ * </p>
+ * Anyone too far from the player to notice them is left dirty, if something does end up asking
+ * about them it gets worked out then.
+ */
+public class PerceptionSystem extends EntitySystem {
+  // Below this it's not worth handing work off to other threads
+  private static final int PARALLEL_THRESHOLD = 4;
+
+  private final Family family;
+  private final Array<Entity> dirty = new Array<>(Entity.class);
+  private ImmutableArray<Entity> entities;
+
+  public PerceptionSystem() {
+    this.family = Family.all(AttributesComponent.class, PositionComponent.class).get();
+  }
+
+  @Override
+  public void addedToEngine(Engine engine) {
+    entities = engine.getEntitiesFor(family);
+  }
+
+  @Override
+  public void removedFromEngine(Engine engine) {
+    entities = null;
+  }
+
+  @Override
+  public void update(float deltaTime) {
+    dirty.clear();
+
+    for (int i = 0; i < entities.size(); i++) {
+      Entity entity = entities.get(i);
+
+      if (ComponentMappers.attributes.get(entity).sensesDirty
+        && WorldManager.entityHelpers.withinSight(entity, WorldManager.player)) {
+        dirty.add(entity);
+      }
+    }
+
+    if (dirty.size == 0) {
+      return;
+    }
+
+    if (dirty.size < PARALLEL_THRESHOLD) {
+      for (int i = 0; i < dirty.size; i++) {
+        WorldManager.entityHelpers.calculateSenses(dirty.get(i), ShadowCaster.forCurrentThread());
+      }
+    } else {
+      ForkJoinPool.commonPool().invoke(new Perceive(dirty.items, 0, dirty.size));
+    }
+  }
+
+  // Splits the actors in half until there's only one left, then does its senses
+  private static class Perceive extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Entity[] actors;
+    private final int from;
+    private final int to;
+
+    Perceive(Entity[] actors, int from, int to) {
+      this.actors = actors;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        WorldManager.entityHelpers.calculateSenses(actors[from], ShadowCaster.forCurrentThread());
+        return;
+      }
+
+      int middle = (from + to) / 2;
+      invokeAll(new Perceive(actors, from, middle), new Perceive(actors, middle, to));
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.EntitySystem;
+import me.dannytatom.xibalba.world.WorldManager;
+
+/**
+ * Runs last, once everything that's going to make noise this turn has made it. Floods it all out
+ * across the map so it can be heard next turn.
+ */
+public class SoundSystem extends EntitySystem {
+  @Override
+  public void update(float deltaTime) {
+    WorldManager.world.getCurrentMap().sound.propagate();
+  }
+}
@@ -0,0 +1,341 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.components.actions.MovementAction;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.WorldManager;
+
+import java.util.PriorityQueue;
+
+/**
+ * Decides who goes when. Every actor sits in a queue keyed on the turn they're next due to act,
+ * whoever's due comes off the front and gets run through each step of a turn (regaining energy,
+ * thinking, acting, statuses), then goes back in for their next one.
+ * </p>
+ * When they're next due comes from their energy and speed. Anyone without enough energy to do
+ * anything is put back in for the turn they'll have built enough up, and gets all the energy
+ * they would've regained in between when they come up. A sloth only comes off the queue about
+ * every fifth turn instead of every turn. The player, and anyone with a status ticking away, still
+ * goes every turn.
+ * </p>
+ * Anyone who isn't due yet isn't looked at at all. Actors due on the same turn go in order of
+ * energy, most first, same as they always have.
+ * </p>
+ * Monsters with nothing to do are parked (see ActivityManager), sleepers until they'd wake up on
+ * their own and far off wanderers for a while at a time. Either come back early when there's a
+ * noise nearby, and wanderers when the player gets close.
+ * </p>
+ * A turn with a lot of actors in it gets spread over as many frames as it needs, so rendering
+ * doesn't stall. The player can't do anything until it's finished.
+ */
+public class TurnSystem extends EntitySystem implements EntityListener {
+  private final UsesEnergySystem[] steps;
+  private final Family family;
+  private final ObjectMap<Entity, Turn> turns = new ObjectMap<>();
+  private final PriorityQueue<Turn> queue = new PriorityQueue<>(TurnSystem::compare);
+  private final Array<Turn> due = new Array<>(Turn.class);
+  private final Array<Entity> woken = new Array<>(Entity.class);
+  private final ActivityManager activity = new ActivityManager();
+  private final EntityListener busyListener = new EntityListener() {
+    @Override
+    public void entityAdded(Entity entity) {
+      hurry(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+    }
+  };
+  private EntitySystem[] afterwards = new EntitySystem[0];
+  private long added = 0;
+  private int next = 0;
+
+  // How many milliseconds of each frame turns can take up, 0 to always do the whole turn at once
+  public int budget = 4;
+
+  /**
+   * Run actors through these steps, in this order.
+   *
+   * @param steps Everything that happens in an actor's turn
+   */
+  public TurnSystem(UsesEnergySystem... steps) {
+    this.steps = steps;
+    this.family = Family.all(AttributesComponent.class).get();
+  }
+
+  /**
+   * Systems to run once everyone's had their turn. They get added to the engine along with this,
+   * but only ever run from here, so a turn spread over a few frames only runs them once.
+   *
+   * @param systems Systems to run at the end of every turn, in this order
+   * @return This
+   */
+  public TurnSystem then(EntitySystem... systems) {
+    afterwards = systems;
+
+    return this;
+  }
+
+  private static int compare(Turn t1, Turn t2) {
+    if (t1.time != t2.time) {
+      return Integer.compare(t1.time, t2.time);
+    }
+
+    if (t1.energy != t2.energy) {
+      return Integer.compare(t2.energy, t1.energy);
+    }
+
+    return Long.compare(t1.order, t2.order);
+  }
+
+  @Override
+  public void addedToEngine(Engine engine) {
+    engine.addEntityListener(family, this);
+    engine.addEntityListener(activity.getBusy(), busyListener);
+
+    for (EntitySystem system : afterwards) {
+      system.setProcessing(false);
+      engine.addSystem(system);
+    }
+
+    for (Entity entity : engine.getEntitiesFor(family)) {
+      entityAdded(entity);
+    }
+  }
+
+  @Override
+  public void removedFromEngine(Engine engine) {
+    engine.removeEntityListener(this);
+    engine.removeEntityListener(busyListener);
+
+    for (EntitySystem system : afterwards) {
+      engine.removeSystem(system);
+    }
+
+    turns.clear();
+    queue.clear();
+    due.clear();
+    activity.clear();
+    WorldManager.turnInProgress = false;
+  }
+
+  @Override
+  public void entityAdded(Entity entity) {
+    Turn turn = new Turn(entity);
+    turn.last = WorldManager.turnCount;
+    turns.put(entity, turn);
+    schedule(turn, WorldManager.turnCount + 1);
+  }
+
+  @Override
+  public void entityRemoved(Entity entity) {
+    Turn turn = turns.remove(entity);
+
+    // Left in the queue, it gets thrown away when it comes up
+    if (turn != null) {
+      turn.cancelled = true;
+    }
+
+    activity.forget(entity);
+  }
+
+  /**
+   * Wake up anyone parked who might be in earshot of a noise, so they get a turn to listen.
+   *
+   * @param cellX  Where the noise was
+   * @param cellY  Where the noise was
+   * @param volume How loud it was, it can't travel further than this
+   */
+  public void wakeAround(int cellX, int cellY, int volume) {
+    activity.wakeAround(cellX, cellY, volume, true, woken);
+
+    // The noise is heard after this turn
+    wakeUp(WorldManager.turnCount + 1);
+  }
+
+  /**
+   * Carry on with the current turn, or start a new one if there isn't one going. Stops once this
+   * frame's budget is used up and picks up where it left off next frame. When everyone's had
+   * their go, the end of turn systems are run.
+   *
+   * @param deltaTime Time since last frame
+   */
+  @Override
+  public void update(float deltaTime) {
+    if (!WorldManager.turnInProgress) {
+      begin();
+    }
+
+    long started = TimeUtils.nanoTime();
+
+    // Always get through at least one actor, so a slow frame doesn't stall the turn
+    while (next < due.size) {
+      act(due.get(next), deltaTime);
+      next += 1;
+
+      boolean overBudget = budget > 0
+        && TimeUtils.timeSinceNanos(started) > TimeUtils.millisToNanos(budget);
+
+      if (overBudget && next < due.size) {
+        return;
+      }
+    }
+
+    for (int i = 0; i < afterwards.length; i++) {
+      afterwards[i].update(deltaTime);
+    }
+
+    WorldManager.turnInProgress = false;
+  }
+
+  // Wake up whoever the player's near, then take everyone who's due off the queue
+  private void begin() {
+    WorldManager.turnInProgress = true;
+
+    due.clear();
+    next = 0;
+
+    if (WorldManager.player != null) {
+      PositionComponent position = ComponentMappers.position.get(WorldManager.player);
+
+      if (position != null) {
+        activity.wakeAround(
+          (int) position.pos.x, (int) position.pos.y, Main.debug.aiFarRadius, false, woken
+        );
+
+        wakeUp(WorldManager.turnCount);
+      }
+    }
+
+    while (!queue.isEmpty() && queue.peek().time <= WorldManager.turnCount) {
+      Turn turn = queue.poll();
+
+      if (!turn.cancelled) {
+        activity.forget(turn.actor);
+        due.add(turn);
+      }
+    }
+  }
+
+  // Give an actor their turn, then put them back in the queue or park them
+  private void act(Turn turn, float deltaTime) {
+    // They could've gone between frames
+    if (turn.cancelled) {
+      return;
+    }
+
+    AttributesComponent attributes = ComponentMappers.attributes.get(turn.actor);
+
+    // Give them the energy from the turns they sat out waiting for it
+    if (turn.resting) {
+      attributes.energy += (WorldManager.turnCount - turn.last - 1) * attributes.speed;
+    }
+
+    if (!turn.actor.isScheduledForRemoval()) {
+      for (UsesEnergySystem step : steps) {
+        step.act(turn.actor, deltaTime);
+      }
+    }
+
+    turn.last = WorldManager.turnCount;
+
+    int dormantUntil = activity.dormantUntil(turn.actor);
+
+    if (dormantUntil == ActivityManager.NONE) {
+      int ready = readyAt(turn.actor, attributes);
+
+      turn.resting = ready > WorldManager.turnCount + 1;
+      schedule(turn, ready);
+    } else {
+      activity.park(turn.actor);
+      turn.resting = false;
+      schedule(turn, dormantUntil);
+    }
+  }
+
+  // The first turn they'll have enough energy to do something, every action costs the same
+  private int readyAt(Entity actor, AttributesComponent attributes) {
+    int needed = MovementAction.COST - attributes.energy;
+
+    if (needed <= 0 || attributes.speed <= 0
+      || ComponentMappers.player.has(actor) || activity.isBusy(actor)) {
+      return WorldManager.turnCount + 1;
+    }
+
+    return WorldManager.turnCount + (needed + attributes.speed - 1) / attributes.speed;
+  }
+
+  // Something needs seeing to every turn now, so bring them forward to next turn
+  private void hurry(Entity entity) {
+    Turn turn = turns.get(entity);
+
+    if (turn == null || turn.time <= WorldManager.turnCount + 1) {
+      return;
+    }
+
+    activity.forget(entity);
+    woken.add(entity);
+    wakeUp(WorldManager.turnCount + 1);
+  }
+
+  // Move everyone just woken up to the front of the queue, their old place is thrown away
+  private void wakeUp(int time) {
+    for (int i = 0; i < woken.size; i++) {
+      Turn turn = turns.get(woken.get(i));
+
+      if (turn != null && turn.time > time) {
+        turn.cancelled = true;
+
+        Turn early = new Turn(turn.actor);
+        early.last = turn.last;
+        early.resting = turn.resting;
+        turns.put(turn.actor, early);
+        schedule(early, time);
+      }
+    }
+
+    woken.clear();
+  }
+
+  private void schedule(Turn turn, int time) {
+    AttributesComponent attributes = ComponentMappers.attributes.get(turn.actor);
+
+    turn.time = time;
+    turn.energy = attributes.energy;
+    turn.order = added++;
+
+    // Sort them by what they'll have once they're caught up
+    if (turn.resting) {
+      turn.energy += (time - turn.last - 1) * attributes.speed;
+    }
+
+    queue.add(turn);
+  }
+
+  // The actor's place in the queue, what it's sorted by is copied in when they're scheduled so
+  // their energy changing while they wait doesn't mess up the order. Resting means they're only
+  // waiting on energy, and are owed it for every turn between last and time.
+  private static class Turn {
+    final Entity actor;
+    int time;
+    int energy;
+    long order;
+    int last;
+    boolean resting = false;
+    boolean cancelled = false;
+
+    Turn(Entity actor) {
+      this.actor = actor;
+    }
+  }
+}
@@ -2,30 +2,29 @@ package me.dannytatom.xibalba.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.SortedIteratingSystem;
-import me.dannytatom.xibalba.components.AttributesComponent;
-import me.dannytatom.xibalba.utils.ComponentMappers;
 
-import java.util.Comparator;
+/**
+ * One step of an actor's turn. These aren't run by the engine on their own, TurnSystem hands them
+ * each actor when it's their turn, in the order the steps were given to it.
+ */
+public abstract class UsesEnergySystem {
+  private final Family family;
 
-public abstract class UsesEnergySystem extends SortedIteratingSystem {
   protected UsesEnergySystem(Family family) {
-    super(family, new EnergyComparator());
+    this.family = family;
   }
 
-  private static class EnergyComparator implements Comparator<Entity> {
-    @Override
-    public int compare(Entity e1, Entity e2) {
-      AttributesComponent a1 = ComponentMappers.attributes.get(e1);
-      AttributesComponent a2 = ComponentMappers.attributes.get(e2);
-
-      if (a2.energy > a1.energy) {
-        return 1;
-      } else if (a1.energy > a2.energy) {
-        return -1;
-      } else {
-        return 0;
-      }
+  /**
+   * Run this step for an actor, if they have what it needs.
+   *
+   * @param entity    The actor whose turn it is
+   * @param deltaTime Time since last frame
+   */
+  public void act(Entity entity, float deltaTime) {
+    if (family.matches(entity)) {
+      processEntity(entity, deltaTime);
     }
   }
+
+  protected abstract void processEntity(Entity entity, float deltaTime);
 }
@@ -1,70 +1,89 @@
 package me.dannytatom.xibalba.systems.actions;
 
-import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.math.Vector2;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.components.actions.ExploreComponent;
-import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.components.actions.MovementAction;
+import me.dannytatom.xibalba.systems.UsesEnergySystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.MapDijkstra;
 import me.dannytatom.xibalba.world.WorldManager;
 
-public class ExploreSystem extends EntitySystem {
-  private ImmutableArray<Entity> entities;
-
+public class ExploreSystem extends UsesEnergySystem {
   public ExploreSystem() {
-
+    super(Family.all(PlayerComponent.class, ExploreComponent.class).get());
   }
 
-  public void addedToEngine(Engine engine) {
-    entities = engine.getEntitiesFor(
-      Family.all(PlayerComponent.class, ExploreComponent.class).get()
-    );
-  }
+  /**
+   * Get a new path if the last one's been walked. The explore map gets rebuilt for it, so it
+   * might not be ready yet, in which case the player shouldn't be given a turn until it is.
+   *
+   * @param entity The player
+   * @return False if we're still waiting on the explore map, true otherwise
+   */
+  public static boolean findPath(Entity entity) {
+    ExploreComponent explore = ComponentMappers.explore.get(entity);
+
+    if (explore == null || (explore.path != null && explore.path.size > 0)) {
+      return true;
+    }
+
+    MapDijkstra dijkstra = WorldManager.world.getCurrentMap().dijkstra;
+
+    // Only ask once, asking again every turn would keep pushing the map we want back
+    if (!explore.waiting) {
+      dijkstra.updatePlayerExplore();
+      explore.waiting = true;
+    }
 
-  public void update(float deltaTime) {
-    for (Entity entity : entities) {
-      ExploreComponent explore = ComponentMappers.explore.get(entity);
+    explore.path = dijkstra.findExplorePath(ComponentMappers.position.get(entity).pos);
 
-      // If the player sees an enemy, stop
-      if (WorldManager.entityHelpers.enemyInSight(entity)) {
-        entity.remove(ExploreComponent.class);
-        WorldManager.state = WorldManager.State.PLAYING;
+    if (explore.path == null) {
+      return false;
+    }
+
+    explore.waiting = false;
+
+    return true;
+  }
 
-        return;
-      }
+  @Override
+  protected void processEntity(Entity entity, float deltaTime) {
+    ExploreComponent explore = ComponentMappers.explore.get(entity);
 
-      // If there is nowhere else to go, stop
-      if (WorldManager.world.getCurrentMap().dijkstra.exploreGoals.size == 0) {
-        entity.remove(ExploreComponent.class);
-        WorldManager.state = WorldManager.State.PLAYING;
+    // If the player sees an enemy, stop
+    if (WorldManager.entityHelpers.enemyInSight(entity)) {
+      entity.remove(ExploreComponent.class);
+      WorldManager.state = WorldManager.State.PLAYING;
 
-        return;
-      }
+      return;
+    }
+
+    // If there is nowhere else to go, stop
+    if (WorldManager.world.getCurrentMap().dijkstra.exploreGoals.size == 0) {
+      entity.remove(ExploreComponent.class);
+      WorldManager.state = WorldManager.State.PLAYING;
 
-      // Get new path if we're done
-      if (explore.path.size == 0) {
-        WorldManager.world.getCurrentMap().dijkstra.updatePlayerExplore();
+      return;
+    }
 
-        explore.path = WorldManager.world.getCurrentMap().dijkstra.findExplorePath(
-          ComponentMappers.position.get(WorldManager.player).pos
-        );
-      }
+    // The explore map is still being built, try again next turn
+    if (!findPath(entity)) {
+      return;
+    }
 
-      AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
-      // Walk it out!
-      if (attributes.energy >= MovementComponent.COST) {
-        // Start walking
-        Vector2 cell = explore.path.get(0);
+    // Walk it out!
+    if (attributes.energy >= MovementAction.COST) {
+      // Start walking
+      Vector2 cell = explore.path.get(0);
 
-        entity.add(new MovementComponent(cell));
-        explore.path.removeIndex(0);
-      }
+      ComponentMappers.actions.get(entity).move(cell);
+      explore.path.removeIndex(0);
     }
   }
 }
@@ -6,16 +6,19 @@ import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
-import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
+import me.dannytatom.xibalba.components.actions.MovementAction;
 import me.dannytatom.xibalba.systems.UsesEnergySystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.MapDijkstra;
+import me.dannytatom.xibalba.world.MapSound;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import java.util.ArrayList;
 
 public class MovementSystem extends UsesEnergySystem {
   public MovementSystem() {
-    super(Family.all(MovementComponent.class).get());
+    super(Family.all(ActionsComponent.class).get());
   }
 
   /**
@@ -25,9 +28,14 @@ public class MovementSystem extends UsesEnergySystem {
    * @param deltaTime Time since last frame
    */
   public void processEntity(Entity entity, float deltaTime) {
+    MovementAction movement = ComponentMappers.actions.get(entity).movement;
+
+    if (!movement.pending) {
+      return;
+    }
+
     PositionComponent position = ComponentMappers.position.get(entity);
     VisualComponent visual = ComponentMappers.visual.get(entity);
-    MovementComponent movement = ComponentMappers.movement.get(entity);
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
     if (movement.pos.x < position.pos.x) {
@@ -40,7 +48,7 @@ public class MovementSystem extends UsesEnergySystem {
     if (!WorldManager.mapHelpers.isBlocked(WorldManager.world.currentMapIndex, movement.pos)) {
       move(entity, movement);
 
-      attributes.energy -= MovementComponent.COST;
+      attributes.energy -= MovementAction.COST;
     } else {
       // If we can't, and the entity is the player, figure out what to do instead
       if (ComponentMappers.player.has(entity)) {
@@ -59,31 +67,34 @@ public class MovementSystem extends UsesEnergySystem {
 
           move(entity, movement);
 
-          attributes.energy -= MovementComponent.COST;
+          attributes.energy -= MovementAction.COST;
         } else if (ComponentMappers.enemy.has(thing)) {
           WorldManager.combatHelpers.preparePlayerForMelee(thing, "body", false);
         } else if (ComponentMappers.exit.has(thing)) {
           WorldManager.state = WorldManager.State.GOING_DOWN;
-          attributes.energy -= MovementComponent.COST;
+          attributes.energy -= MovementAction.COST;
         } else if (ComponentMappers.entrance.has(thing)) {
           WorldManager.state = WorldManager.State.GOING_UP;
-          attributes.energy -= MovementComponent.COST;
+          attributes.energy -= MovementAction.COST;
         }
       }
     }
 
-    entity.remove(MovementComponent.class);
+    movement.clear();
   }
 
-  private void move(Entity entity, MovementComponent movement) {
+  private void move(Entity entity, MovementAction movement) {
     WorldManager.entityHelpers.updatePosition(
       entity, movement.pos.x, movement.pos.y
     );
 
     WorldManager.entityHelpers.updateSenses(entity);
+    WorldManager.entityHelpers.makeNoise(entity, MapSound.MOVEMENT);
 
     if (ComponentMappers.player.has(entity)) {
-      WorldManager.world.getCurrentMap().dijkstra.updateTargetPlayerLand();
+      MapDijkstra dijkstra = WorldManager.world.getCurrentMap().dijkstra;
+      dijkstra.updateTargetPlayerLand();
+      dijkstra.updateTargetPlayerWater();
 
       PlayerComponent playerDetails = ComponentMappers.player.get(WorldManager.player);
 
@@ -9,7 +9,8 @@ import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
-import me.dannytatom.xibalba.components.actions.RangeComponent;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
+import me.dannytatom.xibalba.components.actions.RangeAction;
 import me.dannytatom.xibalba.systems.UsesEnergySystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.utils.SpriteAccessor;
@@ -19,15 +20,20 @@ import java.util.Objects;
 
 public class RangeSystem extends UsesEnergySystem {
   public RangeSystem() {
-    super(Family.all(RangeComponent.class).get());
+    super(Family.all(ActionsComponent.class).get());
   }
 
   @Override
   protected void processEntity(Entity entity, float deltaTime) {
-    RangeComponent range = ComponentMappers.range.get(entity);
+    RangeAction range = ComponentMappers.actions.get(entity).range;
+
+    if (!range.pending) {
+      return;
+    }
+
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
-    if (range.position != null && !entity.isScheduledForRemoval()) {
+    if (!entity.isScheduledForRemoval()) {
       Entity target = WorldManager.mapHelpers.getEnemyAt(range.position);
 
       if (target != null) {
@@ -40,15 +46,18 @@ public class RangeSystem extends UsesEnergySystem {
         ComponentMappers.item.get(range.item).throwing = false;
       }
 
+      // The slot gets reused, the animation needs its own copy
+      Vector2 position = range.position.cpy();
+
       if (target == null) {
-        doThrowAnimation(entity, range.item, range.position, false);
+        doThrowAnimation(entity, range.item, position, false);
       } else {
-        doThrowAnimation(entity, range.item, range.position, true);
+        doThrowAnimation(entity, range.item, position, true);
       }
     }
 
-    attributes.energy -= RangeComponent.COST;
-    entity.remove(RangeComponent.class);
+    attributes.energy -= RangeAction.COST;
+    range.clear();
   }
 
   private void doThrowAnimation(Entity entity, Entity item, Vector2 position, boolean destroy) {
@@ -7,6 +7,7 @@ import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.statuses.DrowningComponent;
 import me.dannytatom.xibalba.systems.UsesEnergySystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.MapSound;
 import me.dannytatom.xibalba.world.WorldManager;
 
 public class DrowningSystem extends UsesEnergySystem {
@@ -33,6 +34,7 @@ public class DrowningSystem extends UsesEnergySystem {
       entity.remove(DrowningComponent.class);
     } else {
       WorldManager.entityHelpers.takeDamage(entity, 5);
+      WorldManager.entityHelpers.makeNoise(entity, MapSound.DROWNING);
 
       AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
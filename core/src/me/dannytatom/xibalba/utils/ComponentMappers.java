@@ -2,10 +2,8 @@ package me.dannytatom.xibalba.utils;
 
 import com.badlogic.ashley.core.ComponentMapper;
 import me.dannytatom.xibalba.components.*;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
 import me.dannytatom.xibalba.components.actions.ExploreComponent;
-import me.dannytatom.xibalba.components.actions.MeleeComponent;
-import me.dannytatom.xibalba.components.actions.MovementComponent;
-import me.dannytatom.xibalba.components.actions.RangeComponent;
 import me.dannytatom.xibalba.components.items.AmmunitionComponent;
 import me.dannytatom.xibalba.components.items.WeaponComponent;
 import me.dannytatom.xibalba.components.statuses.*;
@@ -21,8 +19,8 @@ public final class ComponentMappers {
   public static final ComponentMapper<PositionComponent> position =
     ComponentMapper.getFor(PositionComponent.class);
 
-  public static final ComponentMapper<MovementComponent> movement =
-    ComponentMapper.getFor(MovementComponent.class);
+  public static final ComponentMapper<ActionsComponent> actions =
+    ComponentMapper.getFor(ActionsComponent.class);
 
   public static final ComponentMapper<MouseMovementComponent> mouseMovement =
     ComponentMapper.getFor(MouseMovementComponent.class);
@@ -72,12 +70,6 @@ public final class ComponentMappers {
   public static final ComponentMapper<WetComponent> wet =
     ComponentMapper.getFor(WetComponent.class);
 
-  public static final ComponentMapper<MeleeComponent> melee =
-    ComponentMapper.getFor(MeleeComponent.class);
-
-  public static final ComponentMapper<RangeComponent> range =
-    ComponentMapper.getFor(RangeComponent.class);
-
   public static final ComponentMapper<EffectsComponent> effects =
     ComponentMapper.getFor(EffectsComponent.class);
 
@@ -102,9 +94,6 @@ public final class ComponentMappers {
   public static final ComponentMapper<LightComponent> light =
     ComponentMapper.getFor(LightComponent.class);
 
-  public static final ComponentMapper<RainDropComponent> rainDrop =
-    ComponentMapper.getFor(RainDropComponent.class);
-
   public static final ComponentMapper<PlayerComponent> player =
     ComponentMapper.getFor(PlayerComponent.class);
 
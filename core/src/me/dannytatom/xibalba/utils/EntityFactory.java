@@ -3,13 +3,13 @@ package me.dannytatom.xibalba.utils;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.I18NBundle;
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.*;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
 import me.dannytatom.xibalba.components.items.AmmunitionComponent;
 import me.dannytatom.xibalba.components.items.ArmorComponent;
 import me.dannytatom.xibalba.components.items.WeaponComponent;
@@ -65,6 +65,7 @@ public class EntityFactory {
       data.attributes.get("strength"),
       data.attributes.get("agility")
     ));
+    entity.add(new ActionsComponent());
 
     BrainComponent brain = new BrainComponent(entity);
     entity.add(brain);
@@ -307,23 +308,4 @@ public class EntityFactory {
 
     return entity;
   }
-
-  /**
-   * Create rain drop.
-   *
-   * @return The rain drop
-   */
-  public Entity createRainDrop() {
-    Entity entity = new Entity();
-    Vector2 position = new Vector2(0, 0);
-
-    entity.add(new DecorationComponent(false));
-    entity.add(new RainDropComponent());
-    entity.add(new PositionComponent(position));
-    entity.add(new VisualComponent(
-      Main.asciiAtlas.createSprite("1502"), position, Colors.get("CYAN")
-    ));
-
-    return entity;
-  }
 }
@@ -7,6 +7,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.*;
+import me.dannytatom.xibalba.components.actions.ActionsComponent;
 import me.dannytatom.xibalba.utils.yaml.AbilityData;
 import me.dannytatom.xibalba.utils.yaml.GodData;
 import me.dannytatom.xibalba.world.WorldManager;
@@ -85,6 +86,7 @@ public class PlayerSetup {
 
     player.add(skills);
     player.add(attributes);
+    player.add(new ActionsComponent());
 
     Vector2 position = WorldManager.mapHelpers.getRandomOpenPositionOnLand(
       WorldManager.world.currentMapIndex
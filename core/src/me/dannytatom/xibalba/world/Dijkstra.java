@@ -2,219 +2,479 @@ package me.dannytatom.xibalba.world;
 
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
-import org.apache.commons.lang3.ArrayUtils;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.Arrays;
 
 public class Dijkstra {
-  private Map map;
-  private MapCell[][] cellMap;
-  private int[][] graph;
-  private MapCell.Type[] walkableTypes;
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  // North, NorthEast, East, SouthEast, South, SouthWest, West, NorthWest
+  private static final int[] NEIGHBOUR_X = {0, 1, 1, 1, 0, -1, -1, -1};
+  private static final int[] NEIGHBOUR_Y = {1, 1, 0, -1, -1, -1, 0, 1};
+
+  private final int width;
+  private final int height;
+  private final boolean[] walkable;
+  private final int[] graph;
+  private final int[] queue;
+  private final IntIntMap goals;
+  private long[] seeds;
+  private int[] invalidValues;
+  private int[] invalidMarks;
+  private int invalidMark;
+
+  /**
+   * A Dijkstra map over the cells of the given map whose type is in walkableTypes.
+   *
+   * @param map           The map we're working on
+   * @param walkableTypes Cell types that can be walked through
+   */
+  public Dijkstra(Map map, MapCell.Type... walkableTypes) {
+    this(map.width, map.height, createWalkableMask(map, walkableTypes));
+  }
 
+  /**
+   * Build a Dijkstra map and calculate it for the given goals right away.
+   *
+   * @param map           The map we're working on
+   * @param walkableTypes Cell types that can be walked through
+   * @param goals         Cells to walk towards
+   */
   public Dijkstra(Map map, MapCell.Type[] walkableTypes, Array<Vector2> goals) {
-    this.map = map;
-    this.cellMap = this.map.getCellMap();
-    this.walkableTypes = walkableTypes;
+    this(map, walkableTypes);
 
-    createGraph(goals);
+    calculate(goals);
   }
 
-  // To get a Dijkstra graph, you start with an integer array representing your graph,
-  // with some set of goal cells set to zero and all the rest set to a very high number.
-  //
-  // Iterate through the graph's "floor" cells -- skip the impassable wall cells.
-  // If any floor tile has a value that is at least 2 greater than its lowest-value floor neighbor,
-  // set it to be exactly 1 greater than its lowest value neighbor. Repeat until no changes are made.
-  //
-  // The resulting grid of numbers represents the number of steps that it
-  // will take to get from any given tile to the nearest goal.
-  //
-  // To find a path, you just walk downhill from starting position to goal position.
-  private void createGraph(Array<Vector2> goals) {
-    graph = new int[map.width][map.height];
+  /**
+   * A Dijkstra map over a flat walkable mask, indexed by x + y * width.
+   *
+   * @param width    Width of the grid
+   * @param height   Height of the grid
+   * @param walkable Which cells can be walked through
+   */
+  public Dijkstra(int width, int height, boolean[] walkable) {
+    this.width = width;
+    this.height = height;
+    this.walkable = walkable;
+
+    graph = new int[width * height];
+    queue = new int[width * height];
+    goals = new IntIntMap();
+    seeds = new long[16];
+
+    Arrays.fill(graph, UNREACHABLE);
+  }
 
-    for (int x = 0; x < graph.length; x++) {
-      for (int y = 0; y < graph[x].length; y++) {
-        graph[x][y] = 100;
+  private static boolean[] createWalkableMask(Map map, MapCell.Type[] walkableTypes) {
+    boolean[] walkableType = new boolean[MapCell.Type.values().length];
+
+    for (MapCell.Type type : walkableTypes) {
+      if (type != null) {
+        walkableType[type.ordinal()] = true;
       }
     }
 
+    boolean[] mask = new boolean[map.width * map.height];
+
+    for (int i = 0; i < mask.length; i++) {
+      mask[i] = walkableType[map.types[i]];
+    }
+
+    return mask;
+  }
+
+  /**
+   * Calculate distances to the nearest goal, every goal being worth 0.
+   *
+   * @param goals Cells to walk towards
+   */
+  public void calculate(Array<Vector2> goals) {
+    calculate(goals, null);
+  }
+
+  /**
+   * Calculate distances to the nearest goal.
+   *
+   * @param goals   Cells to walk towards
+   * @param weights Starting value of each goal, or null for all 0
+   */
+  public void calculate(Array<Vector2> goals, int[] weights) {
+    Arrays.fill(graph, UNREACHABLE);
+    this.goals.clear();
+
+    if (seeds.length < goals.size) {
+      seeds = new long[goals.size];
+    }
+
+    int seedCount = 0;
+
     for (int i = 0; i < goals.size; i++) {
       Vector2 goal = goals.get(i);
+      int cellX = (int) goal.x;
+      int cellY = (int) goal.y;
 
-      graph[(int) goal.x][(int) goal.y] = 0;
-    }
-
-    boolean dirty = true;
-
-    while (dirty) {
-      boolean changed = false;
-
-      for (int x = 0; x < graph.length; x++) {
-        for (int y = 0; y < graph[x].length; y++) {
-          if (canWalk(x, y)) {
-            int bestNeighbour = 100;
-
-            // North
-            if (canWalk(x, y + 1)) {
-              if (graph[x][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x][y + 1];
-              }
-            }
-
-            // NorthEast
-            if (canWalk(x + 1, y + 1)) {
-              if (graph[x + 1][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y + 1];
-              }
-            }
-
-            // East
-            if (canWalk(x + 1, y)) {
-              if (graph[x + 1][y] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y];
-              }
-            }
-
-            // SouthEast
-            if (canWalk(x + 1, y - 1)) {
-              if (graph[x + 1][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y - 1];
-              }
-            }
-
-            // South
-            if (canWalk(x, y - 1)) {
-              if (graph[x][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x][y - 1];
-              }
-            }
-
-            // SouthWest
-            if (canWalk(x - 1, y - 1)) {
-              if (graph[x - 1][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y - 1];
-              }
-            }
-
-            // West
-            if (canWalk(x - 1, y)) {
-              if (graph[x - 1][y] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y];
-              }
-            }
-
-            // NorthWest
-            if (canWalk(x - 1, y + 1)) {
-              if (graph[x - 1][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y + 1];
-              }
-            }
-
-            if (graph[x][y] > bestNeighbour + 2) {
-              graph[x][y] = bestNeighbour + 1;
-              changed = true;
-            }
-          }
-        }
+      if (cellX < 0 || cellX >= width || cellY < 0 || cellY >= height) {
+        continue;
+      }
+
+      int index = cellX + cellY * width;
+
+      // Nobody can stand there, so nothing can walk towards it
+      if (!walkable[index]) {
+        continue;
+      }
+
+      int weight = weights == null ? 0 : weights[i];
+
+      if (weight < this.goals.get(index, UNREACHABLE)) {
+        this.goals.put(index, weight);
       }
 
-      dirty = changed;
+      if (weight < graph[index]) {
+        graph[index] = weight;
+        seeds[seedCount++] = ((long) weight << 32) | index;
+      }
     }
+
+    Arrays.sort(seeds, 0, seedCount);
+
+    propagate(seedCount);
   }
 
   /**
-   * Go until we find a goal of 0.
+   * Move a goal, only repairing the cells whose distance actually changes. </p> If the goal moved
+   * more than a single step it's cheaper to just calculate everything again.
    *
-   * @param start Starting position
-   * @return The path to take
+   * @param from Where the goal was
+   * @param to   Where the goal is now
    */
-  public Array<Vector2> findPath(Vector2 start) {
-    Array<Vector2> path = new Array<>();
+  public void moveGoal(Vector2 from, Vector2 to) {
+    int fromX = (int) from.x;
+    int fromY = (int) from.y;
+    int toX = (int) to.x;
+    int toY = (int) to.y;
+
+    if (fromX == toX && fromY == toY) {
+      return;
+    }
 
-    path.add(start);
+    if (Math.abs(fromX - toX) > 1 || Math.abs(fromY - toY) > 1 || goals.size != 1
+      || goals.get(fromX + fromY * width, UNREACHABLE) != 0) {
+      Array<Vector2> goal = new Array<>();
+      goal.add(to);
+
+      calculate(goal);
+    } else {
+      // Add the new one first so most of the cells around the old one stay supported
+      addGoal(toX, toY, 0);
+      removeGoal(fromX, fromY);
+    }
+  }
+
+  /**
+   * Move the only goal this map has.
+   *
+   * @param to Where the goal is now
+   */
+  public void moveGoal(Vector2 to) {
+    if (goals.size == 1) {
+      int index = goals.keys().next();
 
-    boolean buildingPath = true;
+      moveGoal(new Vector2(index % width, index / width), to);
+    } else {
+      Array<Vector2> goal = new Array<>();
+      goal.add(to);
 
-    while (buildingPath) {
-      int lastX = (int) path.get(path.size - 1).x;
-      int lastY = (int) path.get(path.size - 1).y;
-      int lastValue = get(lastX, lastY);
+      calculate(goal);
+    }
+  }
 
-      // Stop if we've gotten to a goal
-      if (lastValue == 0) {
-        buildingPath = false;
+  /**
+   * Copy the distances and goals from another map of the same size.
+   *
+   * @param other Map to copy from
+   */
+  public void copyFrom(Dijkstra other) {
+    System.arraycopy(other.graph, 0, graph, 0, graph.length);
+
+    goals.clear();
+    goals.putAll(other.goals);
+  }
+
+  /**
+   * Add a goal, lowering every cell it's now the nearest goal for (decrease key).
+   *
+   * @param cellX  x of the goal
+   * @param cellY  y of the goal
+   * @param weight Starting value of the goal
+   */
+  public void addGoal(int cellX, int cellY, int weight) {
+    int index = cellX + cellY * width;
+
+    if (!walkable[index] || weight >= goals.get(index, UNREACHABLE)) {
+      return;
+    }
+
+    goals.put(index, weight);
+
+    if (weight < graph[index]) {
+      graph[index] = weight;
+      seeds[0] = ((long) weight << 32) | index;
+
+      propagate(1);
+    }
+  }
+
+  /**
+   * Remove a goal, raising every cell that was depending on it (increase key). </p> Cells that
+   * no longer have a neighbour one step closer to a goal get invalidated, which cascades out to
+   * whatever was depending on them. Everything invalidated is then seeded from the valid cells
+   * around it and filled back in.
+   *
+   * @param cellX x of the goal
+   * @param cellY y of the goal
+   */
+  public void removeGoal(int cellX, int cellY) {
+    int index = cellX + cellY * width;
+
+    if (!goals.containsKey(index)) {
+      return;
+    }
+
+    goals.remove(index, UNREACHABLE);
+
+    if (invalidMarks == null) {
+      invalidMarks = new int[width * height];
+      invalidValues = new int[width * height];
+    }
+
+    invalidMark += 1;
+
+    int head = 0;
+    int tail = 0;
+
+    invalidValues[tail] = graph[index];
+    queue[tail++] = index;
+    invalidMarks[index] = invalidMark;
+    graph[index] = UNREACHABLE;
+
+    while (head < tail) {
+      int oldValue = invalidValues[head];
+      int current = queue[head++];
+
+      int currentX = current % width;
+      int currentY = current / width;
+
+      for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+        int neighbourX = currentX + NEIGHBOUR_X[i];
+        int neighbourY = currentY + NEIGHBOUR_Y[i];
+
+        if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height) {
+          continue;
+        }
+
+        int neighbour = neighbourX + neighbourY * width;
+
+        if (graph[neighbour] == oldValue + 1 && !isSupported(neighbour)) {
+          invalidValues[tail] = graph[neighbour];
+          queue[tail++] = neighbour;
+          invalidMarks[neighbour] = invalidMark;
+          graph[neighbour] = UNREACHABLE;
+        }
       }
+    }
 
-      // North
-      if (canWalk(lastX, lastY + 1) && get(lastX, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX, lastY + 1));
+    if (seeds.length < tail) {
+      seeds = new long[tail];
+    }
 
-        continue;
+    int seedCount = 0;
+
+    for (int i = 0; i < tail; i++) {
+      int current = queue[i];
+      int value = reseedValue(current);
+
+      if (value != UNREACHABLE) {
+        graph[current] = value;
+        seeds[seedCount++] = ((long) value << 32) | current;
       }
+    }
+
+    Arrays.sort(seeds, 0, seedCount);
+
+    propagate(seedCount);
+  }
 
-      // NorthEast
-      if (canWalk(lastX + 1, lastY + 1) && get(lastX + 1, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY + 1));
+  // A cell is supported if it's a goal sitting at its own weight, or it has a neighbour
+  // exactly one step closer to a goal.
+  private boolean isSupported(int index) {
+    int value = graph[index];
 
+    if (goals.get(index, UNREACHABLE) == value) {
+      return true;
+    }
+
+    int cellX = index % width;
+    int cellY = index / width;
+
+    for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+      int neighbourX = cellX + NEIGHBOUR_X[i];
+      int neighbourY = cellY + NEIGHBOUR_Y[i];
+
+      if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height) {
         continue;
       }
 
-      // East
-      if (canWalk(lastX + 1, lastY) && get(lastX + 1, lastY) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY));
+      int neighbourValue = graph[neighbourX + neighbourY * width];
 
-        continue;
+      if (neighbourValue != UNREACHABLE && neighbourValue + 1 == value) {
+        return true;
       }
+    }
+
+    return false;
+  }
+
+  // Best value an invalidated cell can get from its own goal weight and its valid neighbours.
+  private int reseedValue(int index) {
+    int value = goals.get(index, UNREACHABLE);
+
+    if (!walkable[index]) {
+      return value;
+    }
+
+    int cellX = index % width;
+    int cellY = index / width;
 
-      // SouthEast
-      if (canWalk(lastX + 1, lastY - 1) && get(lastX + 1, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY - 1));
+    for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+      int neighbourX = cellX + NEIGHBOUR_X[i];
+      int neighbourY = cellY + NEIGHBOUR_Y[i];
 
+      if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height) {
         continue;
       }
 
-      // South
-      if (canWalk(lastX, lastY - 1) && get(lastX, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX, lastY - 1));
+      int neighbour = neighbourX + neighbourY * width;
+      int neighbourValue = graph[neighbour];
 
-        continue;
+      if (invalidMarks[neighbour] != invalidMark && neighbourValue != UNREACHABLE
+        && neighbourValue + 1 < value) {
+        value = neighbourValue + 1;
       }
+    }
 
-      // SouthWest
-      if (canWalk(lastX - 1, lastY - 1) && get(lastX - 1, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY - 1));
+    return value;
+  }
 
-        continue;
+  // To get a Dijkstra graph, you start with every cell set to unreachable and your goal cells set
+  // to their weight (usually 0, lower means more desirable).
+  //
+  // Rather than sweeping the whole grid until nothing changes, we do a single breadth first pass.
+  // Every step costs 1, so the queue is always ordered by distance; the goals are sorted by weight
+  // and merged into it as we go, which keeps the whole thing in order for weighted goals too.
+  //
+  // The resulting grid of numbers represents the number of steps that it
+  // will take to get from any given tile to the nearest goal.
+  //
+  // To find a path, you just walk downhill from starting position to goal position.
+  private void propagate(int seedCount) {
+    int head = 0;
+    int tail = 0;
+    int nextSeed = 0;
+
+    while (head < tail || nextSeed < seedCount) {
+      int current;
+
+      if (nextSeed < seedCount
+        && (head == tail || (int) (seeds[nextSeed] >> 32) <= graph[queue[head]])) {
+        long seed = seeds[nextSeed++];
+        current = (int) seed;
+
+        // Something else already got here cheaper, and it's in the queue
+        if (graph[current] < (int) (seed >> 32)) {
+          continue;
+        }
+      } else {
+        current = queue[head++];
       }
 
-      // West
-      if (canWalk(lastX - 1, lastY) && get(lastX - 1, lastY) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY));
+      int cellX = current % width;
+      int cellY = current / width;
+      int value = graph[current] + 1;
 
-        continue;
+      for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+        int neighbourX = cellX + NEIGHBOUR_X[i];
+        int neighbourY = cellY + NEIGHBOUR_Y[i];
+
+        if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height) {
+          continue;
+        }
+
+        int neighbour = neighbourX + neighbourY * width;
+
+        if (walkable[neighbour] && graph[neighbour] > value) {
+          graph[neighbour] = value;
+          queue[tail++] = neighbour;
+        }
       }
+    }
+  }
 
-      // NorthWest
-      if (canWalk(lastX - 1, lastY + 1) && get(lastX - 1, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY + 1));
+  /**
+   * Walk downhill until there's nowhere lower to go.
+   *
+   * @param start Starting position
+   * @return The path to take
+   */
+  public Array<Vector2> findPath(Vector2 start) {
+    Array<Vector2> path = new Array<>();
 
-        continue;
+    path.add(start);
+
+    int cellX = (int) start.x;
+    int cellY = (int) start.y;
+
+    if (cellX < 0 || cellX >= width || cellY < 0 || cellY >= height) {
+      return path;
+    }
+
+    while (true) {
+      int lowest = graph[cellX + cellY * width];
+      int nextX = -1;
+      int nextY = -1;
+
+      for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+        int neighbourX = cellX + NEIGHBOUR_X[i];
+        int neighbourY = cellY + NEIGHBOUR_Y[i];
+
+        if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height) {
+          continue;
+        }
+
+        int value = graph[neighbourX + neighbourY * width];
+
+        if (value < lowest) {
+          lowest = value;
+          nextX = neighbourX;
+          nextY = neighbourY;
+        }
       }
 
       // If we couldn't find a next step, stop
-      buildingPath = false;
-    }
+      if (nextX == -1) {
+        return path;
+      }
 
-    return path;
-  }
+      path.add(new Vector2(nextX, nextY));
 
-  public int get(int cellX, int cellY) {
-    return graph[cellX][cellY];
+      cellX = nextX;
+      cellY = nextY;
+    }
   }
 
-  private boolean canWalk(int cellX, int cellY) {
-    return cellX > 0 && cellX < cellMap.length
-      && cellY > 0 && cellY < cellMap[0].length
-      && ArrayUtils.contains(walkableTypes, cellMap[cellX][cellY].type);
+  public int get(int cellX, int cellY) {
+    return graph[cellX + cellY * width];
   }
 }
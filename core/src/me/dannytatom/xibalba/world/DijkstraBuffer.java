@@ -0,0 +1,130 @@
+package me.dannytatom.xibalba.world;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Two copies of the same dijkstra map. Everyone reads from the front one while a worker fills in
+ * the back one, and they're swapped once it's finished. </p> Everything other than the job itself
+ * should only be touched from the main thread, that way a swap can never happen halfway through
+ * somebody reading a path.
+ */
+class DijkstraBuffer {
+  private final ExecutorService pool;
+  private Dijkstra front;
+  private Dijkstra back;
+  private boolean published;
+  private Future<?> pending;
+  private Job queued;
+  private int submitted = 0;
+  private int running = 0;
+  private int waiting = 0;
+  private int current = 0;
+
+  /**
+   * Create both copies up front, on the main thread, so workers never have to read the map.
+   *
+   * @param pool          Where jobs get run
+   * @param map           Map we're making dijkstra maps for
+   * @param walkableTypes What types of cell can be walked on
+   */
+  DijkstraBuffer(ExecutorService pool, Map map, MapCell.Type... walkableTypes) {
+    this.pool = pool;
+    this.front = new Dijkstra(map, walkableTypes);
+    this.back = new Dijkstra(map, walkableTypes);
+  }
+
+  /**
+   * Latest finished map.
+   *
+   * @return The front map, or null if nothing has finished yet
+   */
+  Dijkstra get() {
+    poll();
+
+    return published ? front : null;
+  }
+
+  /**
+   * Latest finished map, but only once it's caught up with a particular rebuild.
+   *
+   * @param generation What submit handed back for the rebuild we want
+   * @return The front map, or null if that rebuild hasn't finished yet
+   */
+  Dijkstra get(int generation) {
+    poll();
+
+    return published && current >= generation ? front : null;
+  }
+
+  /**
+   * Rebuild the back map. If a rebuild is already running this one waits for it, and only the
+   * most recent waiting job is kept.
+   *
+   * @param job What to do to the back map
+   * @return Which rebuild this is, for passing to get
+   */
+  int submit(Job job) {
+    poll();
+
+    submitted += 1;
+
+    if (pending == null) {
+      start(job, submitted);
+    } else {
+      queued = job;
+      waiting = submitted;
+    }
+
+    return submitted;
+  }
+
+  /**
+   * Swap if the running job is done, then start whatever's waiting.
+   */
+  void poll() {
+    if (pending == null || !pending.isDone()) {
+      return;
+    }
+
+    try {
+      pending.get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+
+    pending = null;
+
+    Dijkstra finished = back;
+    back = front;
+    front = finished;
+    published = true;
+    current = running;
+
+    if (queued != null) {
+      Job job = queued;
+      queued = null;
+
+      start(job, waiting);
+    }
+  }
+
+  private void start(Job job, int generation) {
+    final Dijkstra previous = published ? front : null;
+    final Dijkstra target = back;
+
+    running = generation;
+    pending = pool.submit(() -> job.run(previous, target));
+  }
+
+  interface Job {
+    /**
+     * Runs on a worker thread.
+     *
+     * @param previous Front map, don't write to it (null if there isn't one yet)
+     * @param target   Back map to fill in
+     */
+    void run(Dijkstra previous, Dijkstra target);
+  }
+}
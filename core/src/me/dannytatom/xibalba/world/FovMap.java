@@ -0,0 +1,80 @@
+package me.dannytatom.xibalba.world;
+
+import java.util.Arrays;
+
+/**
+ * A reusable field of view. Only the window a cast can reach is stored, (2r + 1) * (2r + 1) cells
+ * around where it was cast from, anything outside of it is 0. The backing array only grows, so
+ * casting again with the same radius doesn't allocate anything.
+ */
+public class FovMap {
+  private float[] values = new float[0];
+  private int left;
+  private int bottom;
+  private int size = 0;
+  private boolean filled = false;
+  private float fillValue;
+
+  /**
+   * Cast from a position, replacing whatever was there before.
+   *
+   * @param caster Caster to use
+   * @param map    Map to cast on
+   * @param startX Where to cast from
+   * @param startY Where to cast from
+   * @param radius How far it reaches
+   */
+  public void cast(ShadowCaster caster, Map map, int startX, int startY, float radius) {
+    int reach = Math.max(0, (int) Math.ceil(radius));
+
+    size = reach * 2 + 1;
+    left = startX - reach;
+    bottom = startY - reach;
+    filled = false;
+
+    if (values.length < size * size) {
+      values = new float[size * size];
+    } else {
+      Arrays.fill(values, 0, size * size, 0);
+    }
+
+    caster.calculateFov(map, startX, startY, radius, this);
+  }
+
+  /**
+   * Give every cell the same value, for when we don't care about walls or distance at all.
+   *
+   * @param value What every cell should be
+   */
+  public void fill(float value) {
+    filled = true;
+    fillValue = value;
+  }
+
+  /**
+   * How lit a cell is, where 0 or below is out of view.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Its value
+   */
+  public float get(int cellX, int cellY) {
+    if (filled) {
+      return fillValue;
+    }
+
+    int windowX = cellX - left;
+    int windowY = cellY - bottom;
+
+    if (windowX < 0 || windowY < 0 || windowX >= size || windowY >= size) {
+      return 0;
+    }
+
+    return values[windowX + windowY * size];
+  }
+
+  // Only the caster writes, and only inside the window
+  void set(int cellX, int cellY, float value) {
+    values[(cellX - left) + (cellY - bottom) * size] = value;
+  }
+}
@@ -1,14 +1,16 @@
 package me.dannytatom.xibalba.world;
 
-import aurelienribon.tweenengine.Tween;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
-import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import me.dannytatom.xibalba.Main;
-import me.dannytatom.xibalba.utils.SpriteAccessor;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -18,35 +20,85 @@ public class Map {
   public final int height;
   public final int depth;
   public final String type;
-  public final MapCell.Type[][] geometry;
   public final MapDijkstra dijkstra;
+  public final MapSound sound;
+
+  // Packed tile layer, everything is indexed by x + y * width
+  public final byte[] types;
+  public final byte[] flags;
+  public final short[] colors;
+  public final short[] descriptions;
+  public final short[] glyphs;
+
+  // Cells that block light and sight, kept in step with types
+  final Bits opaque;
+
+  // What the player has ever seen, and what they can see right now
+  public final Bits explored;
+  public final Bits visible;
+
+  // Cells that look different since the renderer last cached them
+  public final Bits redraw;
+
+  // Goes up every time the player's vision is updated, so anything drawn from it knows to redo it
+  public int visionVersion = 0;
+
   public boolean hasWater = false;
   public Vector2 entrance;
   public Vector2 exit;
   public MapLight light;
   public MapWeather weather;
-  private MapCell[][] map;
+
+  // Water fades between its color and this one, offset by its phase so it doesn't all move at once
+  private final short[] shades;
+  private final float[] phases;
+  private final Color water = new Color();
+  private float time = 0;
+
+  private final Array<Color> palette = new Array<>();
+  private final ObjectIntMap<Color> paletteIndices = new ObjectIntMap<>();
+  private final Array<String> descriptionTable = new Array<>();
+  private final ObjectIntMap<String> descriptionIndices = new ObjectIntMap<>();
   private MapCell.Type[][] flooded;
   private int floodedCount = 0;
 
   /**
-   * Holds logic for dealing with maps.
+   * Holds logic for dealing with maps. The geometry is only used to fill in the types, it isn't
+   * kept around after that.
    *
    * @param geometry The world geometry
    */
   public Map(int depth, String type, MapCell.Type[][] geometry) {
     this.depth = depth;
     this.type = type;
-    this.geometry = geometry;
 
-    this.width = this.geometry.length;
-    this.height = this.geometry[0].length;
+    this.width = geometry.length;
+    this.height = geometry[0].length;
+
+    this.types = new byte[width * height];
+    this.flags = new byte[width * height];
+    this.colors = new short[width * height];
+    this.descriptions = new short[width * height];
+    this.glyphs = new short[width * height];
+    this.opaque = new Bits(width * height);
+    this.explored = new Bits(width * height);
+    this.visible = new Bits(width * height);
+    this.redraw = new Bits(width * height);
+    this.shades = new short[width * height];
+    this.phases = new float[width * height];
 
     this.dijkstra = new MapDijkstra(this);
+    this.sound = new MapSound(this);
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        setType(x + y * width, geometry[x][y] == MapCell.Type.FLOOR ? MapCell.FLOOR : MapCell.WALL);
+      }
+    }
   }
 
   /**
-   * Turn geometry into a MapCell[][] of real tiles based on map type.
+   * Turn the bare floors and walls into real tiles based on map type.
    */
   public void paint() {
     switch (type) {
@@ -62,31 +114,25 @@ public class Map {
   }
 
   private void paintForest() {
-    map = new MapCell[width][height];
-
     Array<String> floorTypes = new Array<>();
     floorTypes.add("0915");
     floorTypes.add("1202");
 
-    for (int x = 0; x < geometry.length; x++) {
-      for (int y = 0; y < geometry[x].length; y++) {
-        if (geometry[x][y] == MapCell.Type.FLOOR) {
-          Sprite floor = Main.asciiAtlas.createSprite(floorTypes.random());
-          floor.setColor(Colors.get("forestFloor"));
-          floor.setFlip(MathUtils.randomBoolean(), false);
-
-          map[x][y] = new MapCell(
-            floor, Colors.get("forestFloor"), MapCell.Type.FLOOR, "the forest floor"
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (types[x + y * width] == MapCell.FLOOR) {
+          setCell(
+            x, y, floorTypes.random(), Colors.get("forestFloor"),
+            MapCell.Type.FLOOR, "the forest floor"
           );
+
+          setFlag(x + y * width, MapCell.FLIPPED, MathUtils.randomBoolean());
         } else {
-          Sprite wall = Main.asciiAtlas.createSprite("0" + MathUtils.random(5, 6) + "00");
+          String wall = "0" + MathUtils.random(5, 6) + "00";
           Color color = Colors.get("forestTree-" + MathUtils.random(1, 3));
-          wall.setColor(color);
 
-          map[x][y] = new MapCell(wall, color, MapCell.Type.WALL, "a tree");
+          setCell(x, y, wall, color, MapCell.Type.WALL, "a tree");
         }
-
-        map[x][y].sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
       }
     }
 
@@ -97,29 +143,20 @@ public class Map {
   }
 
   private void paintCave() {
-    map = new MapCell[width][height];
-
-    for (int x = 0; x < geometry.length; x++) {
-      for (int y = 0; y < geometry[x].length; y++) {
-        if (geometry[x][y] == MapCell.Type.FLOOR) {
-          Sprite floor = Main.asciiAtlas.createSprite("0915");
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (types[x + y * width] == MapCell.FLOOR) {
           Color color = Colors.get("caveFloor-" + +MathUtils.random(1, 3));
-          floor.setColor(color);
-          map[x][y] = new MapCell(floor, color, MapCell.Type.FLOOR, "a cave floor");
+          setCell(x, y, "0915", color, MapCell.Type.FLOOR, "a cave floor");
         } else {
           int neighbours = getGroundNeighbours(x, y);
 
           if (neighbours > 0) {
-            Sprite wall = Main.asciiAtlas.createSprite("1113");
-            wall.setColor(Colors.get("caveWall"));
-            map[x][y] = new MapCell(wall, Colors.get("caveWall"), MapCell.Type.WALL, "a cave wall");
+            setCell(x, y, "1113", Colors.get("caveWall"), MapCell.Type.WALL, "a cave wall");
           } else {
-            Sprite nothing = Main.asciiAtlas.createSprite("0000");
-            map[x][y] = new MapCell(nothing, null, MapCell.Type.NOTHING, "nothing");
+            setCell(x, y, "0000", null, MapCell.Type.NOTHING, "nothing");
           }
         }
-
-        map[x][y].sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
       }
     }
 
@@ -144,16 +181,13 @@ public class Map {
       floodStartX = MathUtils.random(0, width - 1);
       floodStartY = MathUtils.random(0, height - 1);
     }
-    while (!map[floodStartX][floodStartY].isFloor());
+    while (getType(floodStartX + floodStartY * width) != MapCell.Type.FLOOR);
 
     flood(floodStartX, floodStartY);
 
     for (int x = 0; x < flooded.length; x++) {
       for (int y = 0; y < flooded[0].length; y++) {
         if (flooded[x][y] == MapCell.Type.FLOOR) {
-          Sprite water = Main.asciiAtlas.createSprite("0715");
-          water.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
-
           MapCell.Type waterType;
           Color lightColor;
           Color darkColor;
@@ -180,12 +214,10 @@ public class Map {
             );
           }
 
-          water.setColor(lightColor);
-          Tween tween = Tween.to(water, SpriteAccessor.COLOR, .5f).target(
-            darkColor.r, darkColor.g, darkColor.b
-          ).repeatYoyo(Tween.INFINITY, MathUtils.random());
+          setCell(x, y, "0715", lightColor, waterType, "water");
 
-          map[x][y] = new MapCell(water, lightColor, waterType, "water", tween);
+          shades[x + y * width] = paletteIndex(darkColor);
+          phases[x + y * width] = MathUtils.random();
         }
       }
     }
@@ -194,20 +226,17 @@ public class Map {
   // Find the largest section of water with land on both sides
   // Connect it with a bridge
   private void createBridge() {
-    Sprite bridge = Main.asciiAtlas.createSprite("0302");
     Vector2 start = null;
     int length = 0;
 
-    for (int x = 0; x < map.length; x++) {
-      for (int y = 0; y < map[x].length; y++) {
-        MapCell cell = map[x][y];
-
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
         // Found water tile, go up until no more water.
         // Store start position and the length.
-        if (cell.isWater()) {
+        if (isWater(x + y * width)) {
           int count = 0;
 
-          while (map[x][y + count].isWater()) {
+          while (isWater(x + (y + count) * width)) {
             count++;
           }
 
@@ -221,26 +250,283 @@ public class Map {
 
     if (start != null && length > 0) {
       for (int y = 0; y < length; y++) {
-        makeCellBridge(map[(int) start.x][(int) start.y + y], bridge);
+        makeCellBridge((int) start.x + ((int) start.y + y) * width);
       }
     }
   }
 
-  private void makeCellBridge(MapCell cell, Sprite bridge) {
-    cell.sprite.setRegion(
-      bridge.getRegionX(), bridge.getRegionY(),
-      bridge.getRegionWidth(), bridge.getRegionHeight()
-    );
+  private void makeCellBridge(int index) {
+    glyphs[index] = MapTiles.get("0302");
+    setType(index, MapCell.FLOOR);
+    colors[index] = paletteIndex(Colors.get("bridge"));
+    descriptions[index] = descriptionIndex("a bridge");
+    redraw.set(index);
+  }
+
+  // Fill in every layer for a cell while painting
+  private void setCell(int cellX, int cellY, String glyph, Color color,
+                       MapCell.Type type, String description) {
+    int index = cellX + cellY * width;
+
+    glyphs[index] = MapTiles.get(glyph);
+    setType(index, (byte) type.ordinal());
+    flags[index] = 0;
+    colors[index] = paletteIndex(color);
+    descriptions[index] = descriptionIndex(description);
+  }
+
+  /**
+   * Change what a cell is. Anything that changes terrain should go through here so opacity stays
+   * in sync with it.
+   *
+   * @param index Which cell
+   * @param type  One of the MapCell type constants
+   */
+  public void setType(int index, byte type) {
+    types[index] = type;
+    redraw.set(index);
+
+    if (type == MapCell.WALL || type == MapCell.NOTHING) {
+      opaque.set(index);
+    } else {
+      opaque.clear(index);
+    }
+  }
+
+  private short paletteIndex(Color color) {
+    if (color == null) {
+      return -1;
+    }
+
+    int index = paletteIndices.get(color, -1);
+
+    if (index == -1) {
+      index = palette.size;
+      palette.add(color.cpy());
+      paletteIndices.put(palette.peek(), index);
+    }
+
+    return (short) index;
+  }
+
+  private short descriptionIndex(String description) {
+    int index = descriptionIndices.get(description, -1);
 
-    cell.sprite.setColor(Colors.get("bridge"));
-    cell.type = MapCell.Type.FLOOR;
-    cell.description = "a bridge";
+    if (index == -1) {
+      index = descriptionTable.size;
+      descriptionTable.add(description);
+      descriptionIndices.put(description, index);
+    }
 
-    cell.tween.kill();
+    return (short) index;
   }
 
-  public MapCell[][] getCellMap() {
-    return map;
+  /**
+   * Update what the player can see from their new vision map. Only cells that were visible and
+   * cells inside the new vision radius are touched.
+   *
+   * @param visionMap Player's vision
+   * @param originX   Where the player is
+   * @param originY   Where the player is
+   * @param radius    How far they can see
+   */
+  public void updateExploration(FovMap visionMap, int originX, int originY, int radius) {
+    visionVersion += 1;
+
+    for (int index = visible.nextSetBit(0); index != -1; index = visible.nextSetBit(index + 1)) {
+      if (visionMap.get(index % width, index / width) <= 0) {
+        visible.clear(index);
+      }
+    }
+
+    int startX = Math.max(0, originX - radius);
+    int startY = Math.max(0, originY - radius);
+    int endX = Math.min(width - 1, originX + radius);
+    int endY = Math.min(height - 1, originY + radius);
+
+    for (int x = startX; x <= endX; x++) {
+      for (int y = startY; y <= endY; y++) {
+        if (visionMap.get(x, y) <= 0) {
+          continue;
+        }
+
+        int index = x + y * width;
+        visible.set(index);
+
+        if (!explored.getAndSet(index)) {
+          redraw.set(index);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get a view of a single cell. Fine for one offs, loops over the whole map should read the
+   * packed arrays instead.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return The cell
+   */
+  public MapCell getCell(int cellX, int cellY) {
+    return new MapCell(this, cellX + cellY * width);
+  }
+
+  public MapCell.Type getType(int index) {
+    return MapCell.TYPES[types[index]];
+  }
+
+  public boolean isWater(int index) {
+    return types[index] == MapCell.SHALLOW_WATER || types[index] == MapCell.DEEP_WATER;
+  }
+
+  /**
+   * Does this cell block light and sight?
+   *
+   * @param index Which cell
+   * @return Whether it's opaque
+   */
+  public boolean isOpaque(int index) {
+    return opaque.get(index);
+  }
+
+  /**
+   * Does this cell change how it looks on its own? These can't be cached.
+   *
+   * @param index Which cell
+   * @return Whether it's animated
+   */
+  public boolean isAnimated(int index) {
+    return isWater(index);
+  }
+
+  /**
+   * Move animated tiles along.
+   *
+   * @param delta Time since last frame
+   */
+  public void animate(float delta) {
+    time += delta;
+  }
+
+  public boolean hasFlag(int index, int flag) {
+    return (flags[index] & flag) != 0;
+  }
+
+  /**
+   * Turn a flag on or off.
+   *
+   * @param index Which cell
+   * @param flag  Flag to change, one of the MapCell flag constants
+   * @param on    Whether it should be set
+   */
+  public void setFlag(int index, int flag, boolean on) {
+    byte was = flags[index];
+
+    if (on) {
+      flags[index] |= flag;
+    } else {
+      flags[index] &= ~flag;
+    }
+
+    if (flags[index] != was) {
+      redraw.set(index);
+    }
+  }
+
+  /**
+   * Stain a cell with something (MapCell.WET, BLOODY or VOMIT). Only the latest stain shows.
+   *
+   * @param index Which cell
+   * @param stain What it's stained with
+   */
+  public void stain(int index, int stain) {
+    byte was = flags[index];
+
+    flags[index] &= ~MapCell.STAINS;
+    flags[index] |= stain;
+
+    // Rain keeps wetting cells that are already wet, don't redraw their chunk for nothing
+    if (flags[index] != was) {
+      redraw.set(index);
+    }
+  }
+
+  /**
+   * The color a cell was painted with.
+   *
+   * @param index Which cell
+   * @return Base color, null for nothing
+   */
+  public Color getColor(int index) {
+    return colors[index] == -1 ? null : palette.get(colors[index]);
+  }
+
+  /**
+   * The color a cell should be drawn with, taking stains into account.
+   *
+   * @param index Which cell
+   * @return Color to draw with
+   */
+  public Color getTint(int index) {
+    if (hasFlag(index, MapCell.BLOODY)) {
+      return Colors.get("RED");
+    } else if (hasFlag(index, MapCell.VOMIT)) {
+      return Colors.get("YELLOW");
+    } else if (hasFlag(index, MapCell.WET)) {
+      return Colors.get(type + "FloorWet");
+    }
+
+    return getColor(index);
+  }
+
+  /**
+   * The color a cell looks right now. Same as getTint, except clean water fades back and forth
+   * between its two colors every second, starting at its phase.
+   * </p>
+   * Hands back the same color every time for water, copy it if you need to keep it.
+   *
+   * @param index Which cell
+   * @return Color to draw with
+   */
+  public Color getAnimatedTint(int index) {
+    if (!isAnimated(index) || (flags[index] & MapCell.STAINS) != 0) {
+      return getTint(index);
+    }
+
+    float cycle = (time + phases[index]) % 1;
+    float progress = Interpolation.pow2.apply(cycle < .5f ? cycle * 2 : 2 - cycle * 2);
+
+    return water.set(palette.get(colors[index])).lerp(palette.get(shades[index]), progress);
+  }
+
+  public String getDescription(int index) {
+    return descriptionTable.get(descriptions[index]);
+  }
+
+  /**
+   * Draw a single cell with the shared glyph for it.
+   *
+   * @param batch Batch to draw with
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   */
+  public void draw(Batch batch, int cellX, int cellY) {
+    int index = cellX + cellY * width;
+    Color tint = getAnimatedTint(index);
+    batch.setColor(tint == null ? Color.WHITE : tint);
+
+    TextureRegion region = MapTiles.getRegion(glyphs[index]);
+    float drawX = cellX * Main.SPRITE_WIDTH;
+
+    if (hasFlag(index, MapCell.FLIPPED)) {
+      batch.draw(region, drawX + Main.SPRITE_WIDTH, cellY * Main.SPRITE_HEIGHT,
+        -Main.SPRITE_WIDTH, Main.SPRITE_HEIGHT);
+    } else {
+      batch.draw(region, drawX, cellY * Main.SPRITE_HEIGHT, Main.SPRITE_WIDTH, Main.SPRITE_HEIGHT);
+    }
+
+    batch.setColor(Color.WHITE);
   }
 
   private int getGroundNeighbours(int cellX, int cellY) {
@@ -252,8 +538,11 @@ public class Map {
         int ny = cellY + j;
 
         if (i != 0 || j != 0) {
-          if (nx >= 0 && ny >= 0 && nx < geometry.length && ny < geometry[0].length) {
-            if (geometry[nx][ny] == MapCell.Type.FLOOR) {
+          if (nx >= 0 && ny >= 0 && nx < width && ny < height) {
+            byte neighbour = types[nx + ny * width];
+
+            // Water was ground before it got flooded
+            if (neighbour != MapCell.WALL && neighbour != MapCell.NOTHING) {
               count += 1;
             }
           }
@@ -265,7 +554,7 @@ public class Map {
   }
 
   private void flood(int cellX, int cellY) {
-    if (geometry[cellX][cellY] == MapCell.Type.FLOOR
+    if (types[cellX + cellY * width] == MapCell.FLOOR
       && flooded[cellX][cellY] == MapCell.Type.WALL) {
       flooded[cellX][cellY] = MapCell.Type.FLOOR;
       floodedCount += 1;
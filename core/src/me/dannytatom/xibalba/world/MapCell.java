@@ -1,59 +1,101 @@
 package me.dannytatom.xibalba.world;
 
-import aurelienribon.tweenengine.Tween;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 
+/**
+ * A view over one cell of a map's packed tile layer. These are cheap to make and don't hold any
+ * state of their own, so don't bother keeping them around.
+ */
 public class MapCell {
-  public final Sprite sprite;
-  public final Color color;
-  public final Tween tween;
-  public String description;
-  public Type type;
-  public boolean hidden = true;
-  public boolean forgotten = false;
+  public static final Type[] TYPES = Type.values();
+  public static final byte NOTHING = (byte) Type.NOTHING.ordinal();
+  public static final byte FLOOR = (byte) Type.FLOOR.ordinal();
+  public static final byte WALL = (byte) Type.WALL.ordinal();
+  public static final byte SHALLOW_WATER = (byte) Type.SHALLOW_WATER.ordinal();
+  public static final byte DEEP_WATER = (byte) Type.DEEP_WATER.ordinal();
+
+  // Flags
+  public static final int WET = 1;
+  public static final int BLOODY = 1 << 1;
+  public static final int VOMIT = 1 << 2;
+  public static final int FLIPPED = 1 << 3;
+  public static final int STAINS = WET | BLOODY | VOMIT;
+
+  private final Map map;
+  private final int index;
 
   /**
    * Holds world cell data.
    *
-   * @param sprite      tile sprite
-   * @param type        whether or not an entity can move onto this cell
-   * @param description what this cell like?
+   * @param map   Map the cell is in
+   * @param index Where in the map it is (x + y * width)
    */
-  MapCell(Sprite sprite, Color color, Type type, String description, Tween tween) {
-    this.sprite = sprite;
-    this.color = color;
-    this.type = type;
-    this.description = description;
-    this.tween = tween;
+  MapCell(Map map, int index) {
+    this.map = map;
+    this.index = index;
+  }
+
+  public Type getType() {
+    return map.getType(index);
+  }
+
+  public Color getColor() {
+    return map.getColor(index);
   }
 
-  MapCell(Sprite sprite, Color color, Type type, String description) {
-    this(sprite, color, type, description, null);
+  public String getDescription() {
+    return map.getDescription(index);
+  }
+
+  /**
+   * The color it looks right now, water changes over time.
+   *
+   * @return Its color
+   */
+  public Color getTint() {
+    return map.getAnimatedTint(index);
+  }
+
+  /**
+   * Has the player never seen this cell?
+   *
+   * @return Whether it's hidden
+   */
+  public boolean isHidden() {
+    return !map.explored.get(index);
+  }
+
+  /**
+   * Has the player seen this cell before, but can't see it right now?
+   *
+   * @return Whether it's forgotten
+   */
+  public boolean isForgotten() {
+    return map.explored.get(index) && !map.visible.get(index);
   }
 
   public boolean isNothing() {
-    return type == Type.NOTHING;
+    return map.types[index] == NOTHING;
   }
 
   public boolean isFloor() {
-    return type == Type.FLOOR;
+    return map.types[index] == FLOOR;
   }
 
   public boolean isWall() {
-    return type == Type.WALL;
+    return map.types[index] == WALL;
   }
 
   public boolean isWater() {
-    return type == Type.SHALLOW_WATER || type == Type.DEEP_WATER;
+    return map.isWater(index);
   }
 
   public boolean isShallowWater() {
-    return type == Type.SHALLOW_WATER;
+    return map.types[index] == SHALLOW_WATER;
   }
 
   public boolean isDeepWater() {
-    return type == Type.DEEP_WATER;
+    return map.types[index] == DEEP_WATER;
   }
 
   public enum Type {
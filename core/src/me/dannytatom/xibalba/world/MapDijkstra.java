@@ -5,13 +5,33 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * All the dijkstra maps for a level. </p> Maps are built on a worker pool and double buffered, so
+ * the find methods always hand back a path from a finished map (or null if the first one for that
+ * map isn't done yet) and the main thread never waits on a rebuild. The explore map is the one
+ * exception, it only hands back a path once the rebuild last asked for is done. Goals are picked
+ * on the main thread, workers only ever touch their own Dijkstra.
+ */
 public class MapDijkstra {
+  private static final ExecutorService POOL = Executors.newFixedThreadPool(
+    Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+      Thread thread = new Thread(runnable, "dijkstra");
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  );
+
   public Array<Vector2> exploreGoals;
-  public Dijkstra[] wanderLand = new Dijkstra[5];
-  public Dijkstra[] wanderWater = new Dijkstra[3];
-  public Dijkstra targetPlayerLand;
-  public Dijkstra targetPlayerWater;
-  public Dijkstra playerExplore;
+  private final DijkstraBuffer[] wanderLand = new DijkstraBuffer[5];
+  private final DijkstraBuffer[] wanderWater = new DijkstraBuffer[3];
+  private DijkstraBuffer targetPlayerLand;
+  private DijkstraBuffer targetPlayerWater;
+  private DijkstraBuffer playerExplore;
+  private int exploreGeneration = 0;
   private Map map;
 
   public MapDijkstra(Map map) {
@@ -26,21 +46,52 @@ public class MapDijkstra {
     updatePlayerExplore();
   }
 
+  /**
+   * Publish any maps that finished and start the rebuilds waiting on them. Call once a frame.
+   */
+  public void update() {
+    for (DijkstraBuffer buffer : wanderLand) {
+      if (buffer != null) {
+        buffer.poll();
+      }
+    }
+
+    for (DijkstraBuffer buffer : wanderWater) {
+      if (buffer != null) {
+        buffer.poll();
+      }
+    }
+
+    if (targetPlayerLand != null) {
+      targetPlayerLand.poll();
+    }
+
+    if (targetPlayerWater != null) {
+      targetPlayerWater.poll();
+    }
+
+    if (playerExplore != null) {
+      playerExplore.poll();
+    }
+  }
+
   public void updateWanderLand() {
     for (int i = 0; i < wanderLand.length; i++) {
       Array<Vector2> goal = new Array<>();
       goal.add(WorldManager.mapHelpers.getRandomOpenPositionOnLand(map.depth));
 
-      MapCell.Type[] walkableTypes = new MapCell.Type[2];
-      walkableTypes[0] = MapCell.Type.FLOOR;
-      walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+      if (wanderLand[i] == null) {
+        wanderLand[i] = new DijkstraBuffer(
+          POOL, map, MapCell.Type.FLOOR, MapCell.Type.SHALLOW_WATER
+        );
+      }
 
-      wanderLand[i] = new Dijkstra(map, walkableTypes, goal);
+      wanderLand[i].submit((previous, target) -> target.calculate(goal));
     }
   }
 
   public Array<Vector2> findWanderLandPath(Vector2 start) {
-    return wanderLand[MathUtils.random(0, wanderLand.length - 1)].findPath(start);
+    return findPath(wanderLand[MathUtils.random(0, wanderLand.length - 1)], start);
   }
 
   public void updateWanderWater() {
@@ -49,56 +100,73 @@ public class MapDijkstra {
         Array<Vector2> goal = new Array<>();
         goal.add(WorldManager.mapHelpers.getRandomOpenPositionInWater(map.depth));
 
-        MapCell.Type[] walkableTypes = new MapCell.Type[2];
-        walkableTypes[1] = MapCell.Type.DEEP_WATER;
+        if (wanderWater[i] == null) {
+          wanderWater[i] = new DijkstraBuffer(POOL, map, MapCell.Type.DEEP_WATER);
+        }
 
-        wanderWater[i] = new Dijkstra(map, walkableTypes, goal);
+        wanderWater[i].submit((previous, target) -> target.calculate(goal));
       }
     }
   }
 
   public Array<Vector2> findWanderWaterPath(Vector2 start) {
     if (map.hasWater) {
-      return wanderWater[MathUtils.random(0, wanderWater.length - 1)].findPath(start);
+      return findPath(wanderWater[MathUtils.random(0, wanderWater.length - 1)], start);
     } else {
       return null;
     }
   }
 
+  /**
+   * Path to the nearest unexplored cell, from the map the last updatePlayerExplore asked for.
+   * Older ones were built from old goals and would walk back to places we've already seen.
+   *
+   * @param start Where the player is
+   * @return The path, or null if that map isn't finished yet
+   */
   public Array<Vector2> findExplorePath(Vector2 start) {
-    return playerExplore.findPath(start);
+    Dijkstra dijkstra = playerExplore == null ? null : playerExplore.get(exploreGeneration);
+
+    return dijkstra == null ? null : dijkstra.findPath(start);
   }
 
+  /**
+   * Keep the land chase map pointed at the player. The last finished map gets copied and repaired
+   * from where the player was, otherwise it's built from scratch.
+   */
   public void updateTargetPlayerLand() {
-    Vector2 position = ComponentMappers.position.get(WorldManager.player).pos;
-    Array<Vector2> goals = new Array<>();
-    goals.add(position);
+    Vector2 position = ComponentMappers.position.get(WorldManager.player).pos.cpy();
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.FLOOR;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+    if (targetPlayerLand == null) {
+      targetPlayerLand = new DijkstraBuffer(
+        POOL, map, MapCell.Type.FLOOR, MapCell.Type.SHALLOW_WATER
+      );
+    }
 
-    targetPlayerLand = new Dijkstra(map, walkableTypes, goals);
+    targetPlayerLand.submit((previous, target) -> retarget(previous, target, position));
   }
 
   public Array<Vector2> findTargetPlayerLandPath(Vector2 start) {
-    return targetPlayerLand.findPath(start);
+    return findPath(targetPlayerLand, start);
   }
 
+  /**
+   * Same as updateTargetPlayerLand, but for things that swim.
+   */
   public void updateTargetPlayerWater() {
-    Vector2 position = ComponentMappers.position.get(WorldManager.player).pos;
-    Array<Vector2> goals = new Array<>();
-    goals.add(position);
+    Vector2 position = ComponentMappers.position.get(WorldManager.player).pos.cpy();
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.DEEP_WATER;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+    if (targetPlayerWater == null) {
+      targetPlayerWater = new DijkstraBuffer(
+        POOL, map, MapCell.Type.DEEP_WATER, MapCell.Type.SHALLOW_WATER
+      );
+    }
 
-    targetPlayerWater = new Dijkstra(map, walkableTypes, goals);
+    targetPlayerWater.submit((previous, target) -> retarget(previous, target, position));
   }
 
   public Array<Vector2> findTargetPlayerWaterPath(Vector2 start) {
-    return targetPlayerWater.findPath(start);
+    return findPath(targetPlayerWater, start);
   }
 
   public void updatePlayerExplore() {
@@ -106,16 +174,40 @@ public class MapDijkstra {
 
     for (int x = 0; x < map.width; x++) {
       for (int y = 0; y < map.height; y++) {
-        if (map.getCellMap()[x][y].hidden && map.getCellMap()[x][y].isFloor()) {
+        int index = x + y * map.width;
+
+        if (map.types[index] == MapCell.FLOOR && !map.explored.get(index)) {
           exploreGoals.add(new Vector2(x, y));
         }
       }
     }
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.FLOOR;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+    if (playerExplore == null) {
+      playerExplore = new DijkstraBuffer(
+        POOL, map, MapCell.Type.FLOOR, MapCell.Type.SHALLOW_WATER
+      );
+    }
+
+    Array<Vector2> goals = exploreGoals;
+    exploreGeneration = playerExplore.submit((previous, target) -> target.calculate(goals));
+  }
+
+  // Runs on a worker, repairs a copy of the last chase map if there is one
+  private static void retarget(Dijkstra previous, Dijkstra target, Vector2 position) {
+    if (previous == null) {
+      Array<Vector2> goals = new Array<>();
+      goals.add(position);
+
+      target.calculate(goals);
+    } else {
+      target.copyFrom(previous);
+      target.moveGoal(position);
+    }
+  }
+
+  private static Array<Vector2> findPath(DijkstraBuffer buffer, Vector2 start) {
+    Dijkstra dijkstra = buffer == null ? null : buffer.get();
 
-    playerExplore = new Dijkstra(map, walkableTypes, exploreGoals);
+    return dijkstra == null ? null : dijkstra.findPath(start);
   }
 }
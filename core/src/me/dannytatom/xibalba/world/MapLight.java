@@ -5,16 +5,43 @@ import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import me.dannytatom.xibalba.components.LightComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Lights come in two layers. Lights sitting still on the ground get baked into a static layer,
+ * which only gets redone when one of them is dropped, picked up or moved. Equipped and flickering
+ * lights are added on top of that every update.
+ * </p>
+ * Every light keeps its last cast in its own window and only casts again if it's moved, so
+ * flickering is just its brightness wobbling around rather than a new cast. Lights that do need
+ * casting are cast in parallel, then everything gets added up into one packed buffer.
+ */
 public class MapLight {
+  // Every cell takes up this many floats in the light buffer, red, green, blue then brightness
+  public static final int STRIDE = 4;
+  public static final int BRIGHTNESS = 3;
+
+  // Below this it's not worth handing casts off to other threads
+  private static final int PARALLEL_THRESHOLD = 4;
+
   private final int mapIndex;
-  private final ShadowCaster caster;
   private final Family family;
-  public float[][] lightMap;
-  public Color[][] colorMap;
+  private final ObjectMap<Entity, Cast> casts = new ObjectMap<>();
+  private final Array<Cast> recasts = new Array<>(Cast.class);
+  public float[] lights;
+  // Goes up whenever the light buffer actually changes
+  public int version = 0;
+  private float[] staticLights;
+  private Map map;
+  private int updates = 0;
   private float counter = 0;
 
   /**
@@ -24,7 +51,6 @@ public class MapLight {
    */
   public MapLight(int mapIndex) {
     this.mapIndex = mapIndex;
-    this.caster = new ShadowCaster();
     this.family = Family.all(LightComponent.class).get();
   }
 
@@ -42,44 +68,205 @@ public class MapLight {
 
     if (counter >= .10f) {
       counter = 0;
+      updates += 1;
 
-      float[][] fovMap = WorldManager.mapHelpers.createFovMapFor(mapIndex);
+      map = WorldManager.world.getMap(mapIndex);
       ImmutableArray<Entity> lightSources = WorldManager.engine.getEntitiesFor(family);
 
-      lightMap = new float[fovMap.length][fovMap[0].length];
-      colorMap = new Color[fovMap.length][fovMap[0].length];
+      if (lights == null) {
+        lights = new float[map.width * map.height * STRIDE];
+        staticLights = new float[map.width * map.height * STRIDE];
+      }
+
+      boolean rebake = false;
+      recasts.clear();
 
       for (Entity lightSource : lightSources) {
         LightComponent light = ComponentMappers.light.get(lightSource);
         PositionComponent position = ComponentMappers.position.get(lightSource);
+        boolean dynamic = light.flickers;
 
         if (position == null) {
           if (WorldManager.itemHelpers.isEquipped(WorldManager.player, lightSource)) {
             position = ComponentMappers.position.get(WorldManager.player);
+            dynamic = true;
           } else {
             continue;
           }
         }
 
-        float radius = light.radius;
+        Cast cast = casts.get(lightSource);
+
+        if (cast == null) {
+          cast = new Cast();
+          casts.put(lightSource, cast);
+        }
+
+        int cellX = (int) position.pos.x;
+        int cellY = (int) position.pos.y;
 
-        if (light.flickers) {
-          radius = MathUtils.random(light.radius - 1, light.radius + 1);
+        if (cast.cellX != cellX || cast.cellY != cellY || cast.dynamic != dynamic) {
+          // Either it's new, it moved, or it was picked up or put down
+          rebake |= !dynamic || (cast.cellX != -1 && !cast.dynamic);
+
+          cast.cellX = cellX;
+          cast.cellY = cellY;
+          cast.radius = light.radius;
+          cast.dynamic = dynamic;
+          cast.color = light.colors.get(MathUtils.random(0, light.colors.size() - 1));
+
+          recasts.add(cast);
         }
 
-        float[][] map = caster.calculateFov(
-          fovMap, (int) position.pos.x, (int) position.pos.y, radius
-        );
+        cast.light = light;
+        cast.seen = updates;
+      }
+
+      // Anything we didn't see this time has been destroyed or left the map
+      ObjectMap.Entries<Entity, Cast> entries = casts.entries();
+      boolean removed = false;
+
+      while (entries.hasNext()) {
+        Cast cast = entries.next().value;
+
+        if (cast.seen != updates) {
+          rebake |= !cast.dynamic;
+          removed = true;
+          entries.remove();
+        }
+      }
 
-        int colorIndex = MathUtils.random(0, light.colors.size() - 1);
+      if (recasts.size < PARALLEL_THRESHOLD) {
+        for (int i = 0; i < recasts.size; i++) {
+          recasts.get(i).cast(map);
+        }
+      } else {
+        ForkJoinPool.commonPool().invoke(new Recast(map, recasts.items, 0, recasts.size));
+      }
+
+      if (rebake) {
+        bake();
+      }
+
+      // Still lights that haven't moved add up to the same thing as last time, so don't bother
+      // with the buffer (or anyone watching version) unless something actually changed
+      boolean changed = rebake || removed || recasts.size > 0;
+
+      for (Cast cast : casts.values()) {
+        changed |= cast.dynamic && cast.light.flickers;
+      }
+
+      if (!changed) {
+        return;
+      }
+
+      System.arraycopy(staticLights, 0, lights, 0, lights.length);
+
+      for (Cast cast : casts.values()) {
+        if (!cast.dynamic) {
+          continue;
+        }
+
+        float intensity = 1;
+        Color color = cast.color;
+
+        if (cast.light.flickers) {
+          intensity = MathUtils.random(.75f, 1.25f);
+          color = cast.light.colors.get(MathUtils.random(0, cast.light.colors.size() - 1));
+        }
 
-        for (int x = 0; x < map.length; x++) {
-          for (int y = 0; y < map[x].length; y++) {
-            lightMap[x][y] += map[x][y];
-            colorMap[x][y] = light.colors.get(colorIndex);
+        cast.addTo(lights, map.width, intensity, color);
+      }
+
+      version += 1;
+    }
+  }
+
+  /**
+   * How bright a cell is, 0 if nothing's lighting it.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Its brightness
+   */
+  public float getBrightness(int cellX, int cellY) {
+    return lights == null ? 0 : lights[(cellX + cellY * map.width) * STRIDE + BRIGHTNESS];
+  }
+
+  // Redo the static layer from every light that's sitting still
+  private void bake() {
+    Arrays.fill(staticLights, 0);
+
+    for (Cast cast : casts.values()) {
+      if (!cast.dynamic) {
+        cast.addTo(staticLights, map.width, 1, cast.color);
+      }
+    }
+  }
+
+  private static class Cast {
+    final FovMap fov = new FovMap();
+    LightComponent light;
+    Color color;
+    float radius;
+    int cellX = -1;
+    int cellY = -1;
+    int seen;
+    boolean dynamic;
+
+    void cast(Map map) {
+      fov.cast(ShadowCaster.forCurrentThread(), map, cellX, cellY, radius);
+    }
+
+    // Add this light's window onto a light buffer, nothing outside the radius gets lit
+    void addTo(float[] lights, int width, float intensity, Color color) {
+      int reach = (int) Math.ceil(radius);
+      int height = lights.length / STRIDE / width;
+      int toX = Math.min(width - 1, cellX + reach);
+      int toY = Math.min(height - 1, cellY + reach);
+
+      for (int x = Math.max(0, cellX - reach); x <= toX; x++) {
+        for (int y = Math.max(0, cellY - reach); y <= toY; y++) {
+          float lit = fov.get(x, y);
+
+          if (lit > 0) {
+            int offset = (x + y * width) * STRIDE;
+
+            lights[offset] = color.r;
+            lights[offset + 1] = color.g;
+            lights[offset + 2] = color.b;
+            lights[offset + BRIGHTNESS] += lit * intensity;
           }
         }
       }
     }
   }
+
+  // Splits the lights in half until there's only one left, then casts it
+  private static class Recast extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Map map;
+    private final Cast[] casts;
+    private final int from;
+    private final int to;
+
+    Recast(Map map, Cast[] casts, int from, int to) {
+      this.map = map;
+      this.casts = casts;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        casts[from].cast(map);
+        return;
+      }
+
+      int middle = (from + to) / 2;
+      invokeAll(new Recast(map, casts, from, middle), new Recast(map, casts, middle, to));
+    }
+  }
 }
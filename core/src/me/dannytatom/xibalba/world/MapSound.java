@@ -0,0 +1,239 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * One noise field for the whole map. Noisy things (moving, fighting, drowning) get queued up
+ * during a turn, then at the end of it they're all flooded out from where they happened, losing
+ * loudness as they go. Walls and water muffle sound rather than block it.
+ * </p>
+ * Each cell remembers the two loudest things heard there, so something's own footsteps don't
+ * drown out whatever it's listening for. The player gets a slot of their own on top of those,
+ * since that's who everything's listening for, and a crowd of monsters shouldn't drown them out.
+ */
+public class MapSound {
+  public static final int MOVEMENT = 20;
+  public static final int DROWNING = 25;
+  public static final int COMBAT = 30;
+
+  // How much loudness it takes to get into each type of cell, indexed by MapCell type
+  private static final int[] COSTS = {-1, 1, 4, 2, 3};
+  private static final int SLOTS = 2;
+  // Shared slots plus the player's
+  private static final int STRIDE = SLOTS + 1;
+
+  private final Map map;
+  private final Entity[] sources;
+  private final short[] loudness;
+  private final short[] travelled;
+
+  // Cells that heard anything, so only they need clearing next turn
+  private final IntArray touched = new IntArray();
+  private final IntArray queue = new IntArray();
+
+  private final Array<Entity> pendingSources = new Array<>();
+  private final IntArray pendingCells = new IntArray();
+  private final IntArray pendingLoudness = new IntArray();
+
+  /**
+   * Handles sound on the map.
+   *
+   * @param map The map
+   */
+  public MapSound(Map map) {
+    this.map = map;
+
+    sources = new Entity[map.width * map.height * STRIDE];
+    loudness = new short[map.width * map.height * STRIDE];
+    travelled = new short[map.width * map.height * STRIDE];
+
+    Arrays.fill(loudness, (short) -1);
+  }
+
+  /**
+   * Make some noise. It won't be heard until the end of the turn.
+   *
+   * @param source Who made it
+   * @param cellX  Where it happened
+   * @param cellY  Where it happened
+   * @param volume How loud, roughly how many open cells it travels
+   */
+  public void emit(Entity source, int cellX, int cellY, int volume) {
+    pendingSources.add(source);
+    pendingCells.add(cellX + cellY * map.width);
+    pendingLoudness.add(volume);
+  }
+
+  /**
+   * Throw away last turn's noise and flood out everything emitted since.
+   */
+  public void propagate() {
+    for (int i = 0; i < touched.size; i++) {
+      int first = touched.get(i) * STRIDE;
+
+      for (int slot = first; slot < first + STRIDE; slot++) {
+        sources[slot] = null;
+        loudness[slot] = -1;
+      }
+    }
+
+    touched.clear();
+
+    for (int i = 0; i < pendingSources.size; i++) {
+      flood(pendingSources.get(i), pendingCells.get(i), pendingLoudness.get(i));
+    }
+
+    pendingSources.clear();
+    pendingCells.clear();
+    pendingLoudness.clear();
+  }
+
+  /**
+   * Could something at this cell hear the source last turn?
+   *
+   * @param cellX   Where they're listening
+   * @param cellY   Where they're listening
+   * @param source  Who they're listening for
+   * @param hearing How far they can hear
+   * @return Whether they heard it
+   */
+  public boolean canHear(int cellX, int cellY, Entity source, int hearing) {
+    if (cellX < 0 || cellY < 0 || cellX >= map.width || cellY >= map.height) {
+      return false;
+    }
+
+    int slot = find(cellX + cellY * map.width, source);
+
+    return slot != -1 && travelled[slot] <= hearing;
+  }
+
+  private void flood(Entity source, int start, int volume) {
+    if (!relax(start, source, volume, 0)) {
+      return;
+    }
+
+    queue.clear();
+    queue.add(start);
+
+    for (int head = 0; head < queue.size; head++) {
+      int cell = queue.get(head);
+      int slot = find(cell, source);
+
+      // Something louder took its place
+      if (slot == -1) {
+        continue;
+      }
+
+      int remaining = loudness[slot];
+      int distance = travelled[slot];
+      int cellX = cell % map.width;
+      int cellY = cell / map.width;
+
+      for (int deltaX = -1; deltaX <= 1; deltaX++) {
+        for (int deltaY = -1; deltaY <= 1; deltaY++) {
+          int neighbourX = cellX + deltaX;
+          int neighbourY = cellY + deltaY;
+
+          if ((deltaX == 0 && deltaY == 0) || neighbourX < 0 || neighbourY < 0
+            || neighbourX >= map.width || neighbourY >= map.height) {
+            continue;
+          }
+
+          int neighbour = neighbourX + neighbourY * map.width;
+          int cost = COSTS[map.types[neighbour]];
+
+          if (cost == -1 || remaining - cost < 0) {
+            continue;
+          }
+
+          if (relax(neighbour, source, remaining - cost, distance + cost)) {
+            queue.add(neighbour);
+          }
+        }
+      }
+    }
+  }
+
+  // Try to put the source into one of the cell's slots, returns whether anything changed
+  private boolean relax(int cell, Entity source, int volume, int distance) {
+    int first = cell * STRIDE;
+    int slot = find(cell, source);
+
+    boolean silent = loudness[first] == -1 && loudness[first + SLOTS] == -1;
+
+    if (source == WorldManager.player) {
+      slot = first + SLOTS;
+
+      if (loudness[slot] >= volume) {
+        return false;
+      }
+
+      if (silent) {
+        touched.add(cell);
+      }
+
+      sources[slot] = source;
+      loudness[slot] = (short) volume;
+      travelled[slot] = (short) distance;
+
+      return true;
+    }
+
+    if (slot != -1) {
+      if (loudness[slot] >= volume) {
+        return false;
+      }
+    } else {
+      // Take the quietest slot if we're louder than it
+      slot = first + SLOTS - 1;
+
+      if (loudness[slot] >= volume) {
+        return false;
+      }
+    }
+
+    if (silent) {
+      touched.add(cell);
+    }
+
+    sources[slot] = source;
+    loudness[slot] = (short) volume;
+    travelled[slot] = (short) distance;
+
+    // Keep the loudest first
+    while (slot > first && loudness[slot] > loudness[slot - 1]) {
+      swap(slot, slot - 1);
+      slot--;
+    }
+
+    return true;
+  }
+
+  private int find(int cell, Entity source) {
+    for (int slot = cell * STRIDE; slot < (cell + 1) * STRIDE; slot++) {
+      if (sources[slot] == source) {
+        return slot;
+      }
+    }
+
+    return -1;
+  }
+
+  private void swap(int first, int second) {
+    Entity source = sources[first];
+    short volume = loudness[first];
+    short distance = travelled[first];
+
+    sources[first] = sources[second];
+    loudness[first] = loudness[second];
+    travelled[first] = travelled[second];
+
+    sources[second] = source;
+    loudness[second] = volume;
+    travelled[second] = distance;
+  }
+}
@@ -0,0 +1,41 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import me.dannytatom.xibalba.Main;
+
+/**
+ * Every tile glyph maps use, shared between all of them. Cells only store the id of their glyph,
+ * where it goes and what color it is gets worked out when it's drawn.
+ */
+public final class MapTiles {
+  private static final Array<TextureRegion> regions = new Array<>();
+  private static final ObjectIntMap<String> ids = new ObjectIntMap<>();
+
+  private MapTiles() {
+
+  }
+
+  /**
+   * Get the id for a glyph from the ascii atlas, adding it to the table the first time.
+   *
+   * @param name Name of the region in the atlas
+   * @return Its id
+   */
+  public static short get(String name) {
+    int id = ids.get(name, -1);
+
+    if (id == -1) {
+      id = regions.size;
+      regions.add(Main.asciiAtlas.findRegion(name));
+      ids.put(name, id);
+    }
+
+    return (short) id;
+  }
+
+  public static TextureRegion getRegion(int id) {
+    return regions.get(id);
+  }
+}
@@ -1,45 +1,81 @@
 package me.dannytatom.xibalba.world;
 
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import me.dannytatom.xibalba.Main;
-import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.RainDropComponent;
-import me.dannytatom.xibalba.components.VisualComponent;
-import me.dannytatom.xibalba.utils.ComponentMappers;
 
+/**
+ * Rainfall in the forest. </p> Rain drops are just a few numbers in a fixed size pool, they aren't
+ * entities. They only fall where the camera can see, so how much it costs depends on the density
+ * and the size of the screen, not the map.
+ */
 public class MapWeather {
+  // Drops per cell on screen
+  public static final float DEFAULT_DENSITY = .05f;
+
+  // The most drops there can ever be at once
+  private static final int CAPACITY = 512;
+
+  // What stage of its life a drop is at
+  private static final byte DEAD = 0;
+  private static final byte FALLING = 1;
+  private static final byte LANDED = 4;
+  private static final byte SPLASHING = 5;
+  private static final byte FADING = 6;
+
   private final int mapIndex;
-  private final ImmutableArray<Entity> rainDrops;
-  private final Sprite falling;
-  private final Sprite splash;
-  private final Sprite fading;
+  private final int[] cellsX = new int[CAPACITY];
+  private final int[] cellsY = new int[CAPACITY];
+  private final byte[] lives = new byte[CAPACITY];
+
+  private final TextureRegion falling;
+  private final TextureRegion splash;
+  private final TextureRegion fading;
+  private final Color color;
+
+  private float density;
+  private int startX;
+  private int startY;
+  private int endX;
+  private int endY;
   private float animCounter = 0;
 
   /**
-   * Rainfall in the forest. </p> Generate 250 rain drops in random positions on the map.
+   * Rain on a map.
    *
    * @param mapIndex The map we're working on
+   * @param density  How many drops per cell on screen
    */
-  public MapWeather(int mapIndex) {
+  public MapWeather(int mapIndex, float density) {
     this.mapIndex = mapIndex;
+    this.density = density;
 
-    for (int i = 0; i < 250; i++) {
-      Entity drop = WorldManager.entityFactory.createRainDrop();
-      WorldManager.world.entities.get(mapIndex).add(drop);
-    }
+    falling = MapTiles.getRegion(MapTiles.get("1502"));
+    splash = MapTiles.getRegion(MapTiles.get("0700"));
+    fading = MapTiles.getRegion(MapTiles.get("0900"));
+    color = Colors.get("CYAN");
+  }
 
-    rainDrops = WorldManager.engine.getEntitiesFor(Family.all(RainDropComponent.class).get());
+  public void setDensity(float density) {
+    this.density = density;
+  }
 
-    falling = Main.asciiAtlas.createSprite("1502");
-    falling.setColor(Colors.get("CYAN"));
-    splash = Main.asciiAtlas.createSprite("0700");
-    splash.setColor(Colors.get("CYAN"));
-    fading = Main.asciiAtlas.createSprite("0900");
+  /**
+   * Set the cells the camera can see, drops only start falling in here.
+   *
+   * @param startX First visible cell
+   * @param startY First visible cell
+   * @param endX   Last visible cell, exclusive
+   * @param endY   Last visible cell, exclusive
+   */
+  public void setArea(int startX, int startY, int endX, int endY) {
+    this.startX = startX;
+    this.startY = startY;
+    this.endX = endX;
+    this.endY = endY;
   }
 
   /**
@@ -50,48 +86,94 @@ public class MapWeather {
   public void update(float delta) {
     animCounter += delta;
 
-    if (animCounter >= .10f) {
-      animCounter = 0;
-
-      for (Entity drop : rainDrops) {
-        RainDropComponent stats = ComponentMappers.rainDrop.get(drop);
-        PositionComponent position = ComponentMappers.position.get(drop);
-        VisualComponent visual = ComponentMappers.visual.get(drop);
-
-        if (stats.life == 1) {
-          Vector2 newPosition = WorldManager.mapHelpers.getRandomOpenPositionOnLand();
-
-          visual.sprite.set(falling);
-          WorldManager.entityHelpers.updatePosition(drop, newPosition.x, newPosition.y);
-          WorldManager.entityHelpers.updateSprite(drop, newPosition.x, newPosition.y);
-
-          stats.life += 1;
-        } else if (stats.life >= 2 && stats.life <= 4) {
-          Vector2 newPosition = new Vector2(position.pos.x - 1, position.pos.y - 1);
-
-          if (WorldManager.mapHelpers.isBlocked(newPosition)) {
-            stats.life = 5;
-          } else {
-            WorldManager.entityHelpers.updatePosition(drop, newPosition.x, newPosition.y);
-            WorldManager.entityHelpers.updateSprite(drop, newPosition.x, newPosition.y);
-
-            stats.life += 1;
-          }
-        } else if (stats.life == 5) {
-          visual.sprite.set(splash);
-          WorldManager.entityHelpers.updateSprite(drop, position.pos.x, position.pos.y);
-
-          stats.life += 1;
-        } else if (stats.life == 6) {
-          visual.sprite.set(fading);
-          WorldManager.entityHelpers.updateSprite(drop, position.pos.x, position.pos.y);
-          WorldManager.mapHelpers.makeFloorWet(position.pos);
-
-          stats.life += 1;
-        } else if (stats.life == 7) {
-          stats.life = 1;
+    if (animCounter < .10f) {
+      return;
+    }
+
+    animCounter = 0;
+
+    Map map = WorldManager.world.getMap(mapIndex);
+    int wanted = Math.min(CAPACITY, (int) ((endX - startX) * (endY - startY) * density));
+
+    for (int i = 0; i < CAPACITY; i++) {
+      if (lives[i] == DEAD) {
+        if (i < wanted) {
+          spawn(map, i);
+        }
+      } else if (lives[i] < LANDED) {
+        int nextX = cellsX[i] - 1;
+        int nextY = cellsY[i] - 1;
+
+        if (nextX < 0 || nextY < 0 || !isOpen(map, nextX, nextY)) {
+          lives[i] = SPLASHING;
+        } else {
+          cellsX[i] = nextX;
+          cellsY[i] = nextY;
+          lives[i] += 1;
         }
+      } else if (lives[i] == LANDED) {
+        lives[i] = SPLASHING;
+      } else if (lives[i] == SPLASHING) {
+        WorldManager.mapHelpers.makeFloorWet(cellsX[i], cellsY[i]);
+        lives[i] = FADING;
+      } else {
+        lives[i] = DEAD;
       }
     }
   }
+
+  /**
+   * Draw every drop the player can see.
+   *
+   * @param batch Batch to draw with
+   */
+  public void draw(Batch batch) {
+    Map map = WorldManager.world.getMap(mapIndex);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      if (lives[i] == DEAD || !map.visible.get(cellsX[i] + cellsY[i] * map.width)) {
+        continue;
+      }
+
+      TextureRegion region;
+
+      if (lives[i] == SPLASHING) {
+        region = splash;
+      } else if (lives[i] == FADING) {
+        region = fading;
+      } else {
+        region = falling;
+      }
+
+      batch.setColor(lives[i] == FADING ? Color.WHITE : color);
+      batch.draw(
+        region, cellsX[i] * Main.SPRITE_WIDTH, cellsY[i] * Main.SPRITE_HEIGHT,
+        Main.SPRITE_WIDTH, Main.SPRITE_HEIGHT
+      );
+    }
+
+    batch.setColor(Color.WHITE);
+  }
+
+  // One try at a random spot on screen, if it's no good we'll try again next time
+  private void spawn(Map map, int drop) {
+    if (endX <= startX || endY <= startY) {
+      return;
+    }
+
+    int cellX = MathUtils.random(startX, endX - 1);
+    int cellY = MathUtils.random(startY, endY - 1);
+
+    if (isOpen(map, cellX, cellY)) {
+      cellsX[drop] = cellX;
+      cellsY[drop] = cellY;
+      lives[drop] = FALLING;
+    }
+  }
+
+  private boolean isOpen(Map map, int cellX, int cellY) {
+    return cellX < map.width && cellY < map.height
+      && map.types[cellX + cellY * map.width] == MapCell.FLOOR
+      && !WorldManager.mapHelpers.hasEntitiesAt(cellX, cellY);
+  }
 }
@@ -1,48 +1,90 @@
 package me.dannytatom.xibalba.world;
 
+import com.badlogic.gdx.utils.Bits;
+
 public class ShadowCaster {
+  // Casters hold scratch state while casting, so every thread needs its own
+  private static final ThreadLocal<ShadowCaster> casters = ThreadLocal.withInitial(
+    ShadowCaster::new
+  );
+
   private int width;
   private int height;
   private int startX;
   private int startY;
-  private float[][] lightMap;
-  private float[][] resistanceMap;
+  private FovMap lightMap;
+  private Bits opaque;
   private float radius;
 
+  // Square roots of every squared distance we've needed so far, indexed by dx * dx + dy * dy
+  private float[] distances = new float[0];
+
+  /**
+   * Get the caster belonging to the current thread, for casting from worker threads.
+   *
+   * @return This thread's caster
+   */
+  public static ShadowCaster forCurrentThread() {
+    return casters.get();
+  }
+
   /**
    * http://www.roguebasin.com/index.php?title=Improved_Shadowcasting_in_Java
    * <p>
-   * <p>Calculates the Field Of View for the provided world from the given x, y coordinates. Returns
-   * a lightmap for a result where the values represent a percentage of fully lit.
+   * <p>Calculates the Field Of View for the provided world from the given x, y coordinates. Fills
+   * in a lightmap where the values represent a percentage of fully lit.
    * <p>
    * <p>A value equal to or below 0 means that cell is not in the field of view, whereas a value
    * equal to or above 1 means that cell is in the field of view.
+   * <p>
+   * <p>Results are written into the given light map, which is expected to be cleared and sized for
+   * the (2r + 1) * (2r + 1) window around the start. Nothing outside that window is touched.
    *
-   * @param resistanceMap the grid of cells to calculate on where 0 is transparent and 1 is opaque
+   * @param map           the map to calculate on, walls and nothing block light
    * @param startX        the horizontal component of the starting location
    * @param startY        the vertical component of the starting location
    * @param radius        the maximum distance to draw the FOV
-   * @return the computed light grid
+   * @param lightMap      where to put the computed light grid
    */
-  public float[][] calculateFov(float[][] resistanceMap, int startX, int startY, float radius) {
+  public void calculateFov(Map map, int startX, int startY, float radius, FovMap lightMap) {
     this.startX = startX;
     this.startY = startY;
     this.radius = radius;
-    this.resistanceMap = resistanceMap;
+    this.opaque = map.opaque;
+    this.lightMap = lightMap;
 
-    width = resistanceMap.length;
-    height = resistanceMap[0].length;
-    lightMap = new float[width][height];
+    width = map.width;
+    height = map.height;
+
+    ensureDistances(Math.max(0, (int) Math.ceil(radius)));
 
     float force = 1;
-    lightMap[startX][startY] = force; // light the starting cell
+    lightMap.set(startX, startY, force); // light the starting cell
 
     for (Direction d : Direction.DIAGONALS) {
       castLight(1, 1.0f, 0.0f, 0, d.deltaX, d.deltaY, 0);
       castLight(1, 1.0f, 0.0f, d.deltaX, 0, 0, d.deltaY);
     }
 
-    return lightMap;
+    this.lightMap = null;
+    this.opaque = null;
+  }
+
+  private void ensureDistances(int reach) {
+    int size = reach * reach * 2 + 1;
+
+    if (distances.length >= size) {
+      return;
+    }
+
+    float[] grown = new float[size];
+    System.arraycopy(distances, 0, grown, 0, distances.length);
+
+    for (int i = distances.length; i < size; i++) {
+      grown[i] = (float) Math.sqrt(i);
+    }
+
+    distances = grown;
   }
 
   private void castLight(int row, float start, float end, int xx, int xy, int yx, int yy) {
@@ -74,15 +116,17 @@ public class ShadowCaster {
         }
 
         // Check if it's within the lightable area and light if needed
-        if (radius(deltaX, deltaY) <= radius) {
-          float bright = (1 - (radius(deltaX, deltaY) / radius));
-          lightMap[currentX][currentY] = bright;
+        float cellDistance = distances[deltaX * deltaX + deltaY * deltaY];
+
+        if (cellDistance <= radius) {
+          float bright = (1 - (cellDistance / radius));
+          lightMap.set(currentX, currentY, bright);
         }
 
         if (blocked) {
           // Previous cell was a blocking one
 
-          if (resistanceMap[currentX][currentY] >= 1) {
+          if (opaque.get(currentX + currentY * width)) {
             // Hit a wall
 
             newStart = rightSlope;
@@ -91,7 +135,7 @@ public class ShadowCaster {
             start = newStart;
           }
         } else {
-          if (resistanceMap[currentX][currentY] >= 1 && distance < radius) {
+          if (opaque.get(currentX + currentY * width) && distance < radius) {
             // Hit a wall within sight line
             blocked = true;
             castLight(distance + 1, start, leftSlope, xx, xy, yx, yy);
@@ -102,10 +146,6 @@ public class ShadowCaster {
     }
   }
 
-  private float radius(float dx, float dy) {
-    return (float) Math.sqrt(dx * dx + dy * dy);
-  }
-
   // This was stolen from:
   //
   // https://github.com/SquidPony/SquidLib/blob/master/src/squidpony/squidgrid/util/DirectionIntercardinal.java
@@ -0,0 +1,130 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+
+/**
+ * Buckets every positioned entity in the engine by the cell it's standing in, so finding what's
+ * at a position doesn't mean looking at every entity. </p> Kept up to date by listening for
+ * entities with a PositionComponent coming and going, and by EntityHelpers.updatePosition whenever
+ * something moves. If you set a position yourself, call update afterwards.
+ */
+public class SpatialIndex implements EntityListener {
+  private static final int NONE = -1;
+
+  private final IntMap<Array<Entity>> buckets = new IntMap<>();
+  private final ObjectIntMap<Entity> cells = new ObjectIntMap<>();
+  private final Array<Entity> empty = new Array<>(0);
+
+  private static int key(int cellX, int cellY) {
+    return (cellX & 0xFFFF) << 16 | (cellY & 0xFFFF);
+  }
+
+  @Override
+  public void entityAdded(Entity entity) {
+    PositionComponent position = ComponentMappers.position.get(entity);
+
+    if (position != null) {
+      insert(entity, key((int) position.pos.x, (int) position.pos.y));
+    }
+  }
+
+  @Override
+  public void entityRemoved(Entity entity) {
+    int key = cells.remove(entity, NONE);
+
+    if (key != NONE) {
+      buckets.get(key).removeValue(entity, true);
+    }
+  }
+
+  /**
+   * Move an entity to whatever cell its position says it's in. Entities that aren't in the index
+   * (not in the engine, or without a position) are left alone.
+   *
+   * @param entity Entity that moved
+   */
+  public void update(Entity entity) {
+    int previous = cells.get(entity, NONE);
+    PositionComponent position = ComponentMappers.position.get(entity);
+
+    if (previous == NONE || position == null) {
+      return;
+    }
+
+    int key = key((int) position.pos.x, (int) position.pos.y);
+
+    if (previous != key) {
+      buckets.get(previous).removeValue(entity, true);
+      insert(entity, key);
+    }
+  }
+
+  /**
+   * Everything standing in a cell. Don't hold on to it or change it.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Entities in the cell (may be empty)
+   */
+  public Array<Entity> get(int cellX, int cellY) {
+    Array<Entity> bucket = buckets.get(key(cellX, cellY));
+
+    return bucket == null ? empty : bucket;
+  }
+
+  /**
+   * Everything standing inside a rectangle. If the rectangle covers more cells than there are
+   * entities we just go through the entities instead.
+   *
+   * @param cellX  x of the bottom left cell
+   * @param cellY  y of the bottom left cell
+   * @param width  How many cells wide
+   * @param height How many cells tall
+   * @param found  Where to put what we find
+   */
+  public void get(int cellX, int cellY, int width, int height, Array<Entity> found) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+
+    if ((long) width * height > cells.size) {
+      for (ObjectIntMap.Entry<Entity> entry : cells.entries()) {
+        int entityX = entry.value >>> 16;
+        int entityY = entry.value & 0xFFFF;
+
+        if (entityX >= cellX && entityX < cellX + width
+          && entityY >= cellY && entityY < cellY + height) {
+          found.add(entry.key);
+        }
+      }
+    } else {
+      for (int x = cellX; x < cellX + width; x++) {
+        for (int y = cellY; y < cellY + height; y++) {
+          Array<Entity> bucket = buckets.get(key(x, y));
+
+          if (bucket != null) {
+            found.addAll(bucket);
+          }
+        }
+      }
+    }
+  }
+
+  private void insert(Entity entity, int key) {
+    Array<Entity> bucket = buckets.get(key);
+
+    if (bucket == null) {
+      bucket = new Array<>(false, 4);
+      buckets.put(key, bucket);
+    }
+
+    bucket.add(entity);
+    cells.put(entity, key);
+  }
+}
@@ -3,8 +3,10 @@ package me.dannytatom.xibalba.world;
 import aurelienribon.tweenengine.Tween;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.utils.Array;
 import me.dannytatom.xibalba.ActionLog;
+import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.helpers.*;
 import me.dannytatom.xibalba.systems.*;
 import me.dannytatom.xibalba.systems.actions.ExploreSystem;
@@ -20,6 +22,7 @@ public class WorldManager {
   public static World world;
   public static State state;
   public static Array<Tween> tweens;
+  public static SpatialIndex spatialIndex;
   public static EntityFactory entityFactory;
   public static InputHelpers inputHelpers;
   public static MapHelpers mapHelpers;
@@ -30,6 +33,8 @@ public class WorldManager {
   public static Entity player;
   public static Entity god;
   public static boolean executeTurn;
+  // A turn's been started but not everyone's gone yet
+  public static boolean turnInProgress;
   public static int turnCount;
 
   /**
@@ -40,6 +45,7 @@ public class WorldManager {
     log = new ActionLog();
     world = new World();
     tweens = new Array<>();
+    spatialIndex = new SpatialIndex();
 
     entityFactory = new EntityFactory();
     inputHelpers = new InputHelpers();
@@ -50,28 +56,38 @@ public class WorldManager {
     abilityHelpers = new AbilityHelpers();
 
     executeTurn = false;
+    turnInProgress = false;
     turnCount = 0;
 
-    // Setup engine (systems are run in order added)
-    engine.addSystem(new AttributesSystem());
-    engine.addSystem(new AbilitiesSystem());
-    engine.addSystem(new MouseMovementSystem());
-    engine.addSystem(new ExploreSystem());
-    engine.addSystem(new BrainSystem());
-    engine.addSystem(new RangeSystem());
-    engine.addSystem(new MeleeSystem());
-    engine.addSystem(new MovementSystem());
-    engine.addSystem(new TileEffectSystem());
-    engine.addSystem(new EncumberedSystem());
-    engine.addSystem(new CharmedSystem());
-    engine.addSystem(new CrippledSystem());
-    engine.addSystem(new BleedingSystem());
-    engine.addSystem(new DrowningSystem());
-    engine.addSystem(new StuckSystem());
-    engine.addSystem(new PoisonedSystem());
-    engine.addSystem(new SickSystem());
-    engine.addSystem(new WetSystem());
-    engine.addSystem(new DeathSystem());
+    // Keep track of where everything is
+    engine.addEntityListener(Family.all(PositionComponent.class).get(), spatialIndex);
+
+    // Setup engine (TurnSystem runs each actor through its steps in the order given, then the
+    // end of turn systems once everyone's gone)
+    engine.addSystem(new TurnSystem(
+      new AttributesSystem(),
+      new AbilitiesSystem(),
+      new MouseMovementSystem(),
+      new ExploreSystem(),
+      new BrainSystem(),
+      new RangeSystem(),
+      new MeleeSystem(),
+      new MovementSystem(),
+      new TileEffectSystem(),
+      new EncumberedSystem(),
+      new CharmedSystem(),
+      new CrippledSystem(),
+      new BleedingSystem(),
+      new DrowningSystem(),
+      new StuckSystem(),
+      new PoisonedSystem(),
+      new SickSystem(),
+      new WetSystem()
+    ).then(
+      new PerceptionSystem(),
+      new DeathSystem(),
+      new SoundSystem()
+    ));
   }
 
   public enum State {
@@ -0,0 +1,209 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.components.BrainComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.world.WorldManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TurnSystemTest {
+  private final Array<Entity> acted = new Array<>();
+  private Engine engine;
+  private TurnSystem turns;
+
+  private static Entity actor(int energy) {
+    Entity entity = new Entity();
+    AttributesComponent attributes = new AttributesComponent(
+      "", "", AttributesComponent.Type.ANIMAL, 100, 5, 5, 5, 5, 5
+    );
+
+    attributes.energy = energy;
+    entity.add(attributes);
+
+    return entity;
+  }
+
+  @Before
+  public void setUp() {
+    WorldManager.turnCount = 0;
+    WorldManager.turnInProgress = false;
+
+    engine = new Engine();
+    turns = new TurnSystem(new UsesEnergySystem(
+      Family.all(AttributesComponent.class).get()
+    ) {
+      @Override
+      protected void processEntity(Entity entity, float deltaTime) {
+        acted.add(entity);
+      }
+    });
+    engine.addSystem(turns);
+  }
+
+  private void takeTurn() {
+    WorldManager.turnCount += 1;
+    engine.update(0);
+  }
+
+  @Test
+  public void shouldGoInOrderOfEnergy() {
+    Entity slow = actor(20);
+    Entity fast = actor(120);
+
+    engine.addEntity(slow);
+    engine.addEntity(fast);
+    takeTurn();
+
+    assertEquals(2, acted.size);
+    assertSame(fast, acted.get(0));
+    assertSame(slow, acted.get(1));
+  }
+
+  @Test
+  public void shouldForgetRemovedActors() {
+    Entity stays = actor(100);
+    Entity goes = actor(100);
+
+    engine.addEntity(stays);
+    engine.addEntity(goes);
+    takeTurn();
+
+    acted.clear();
+    engine.removeEntity(goes);
+    takeTurn();
+
+    assertEquals(1, acted.size);
+    assertSame(stays, acted.get(0));
+  }
+
+  @Test
+  public void shouldOnlyTakeSlowActorsOffTheQueueWhenTheyCanAct() {
+    Entity sloth = new Entity();
+    AttributesComponent attributes = new AttributesComponent(
+      "", "", AttributesComponent.Type.ANIMAL, 25, 5, 5, 5, 5, 5
+    );
+
+    attributes.energy = 0;
+    sloth.add(attributes);
+
+    engine = new Engine();
+    engine.addSystem(new TurnSystem(new AttributesSystem(), new UsesEnergySystem(
+      Family.all(AttributesComponent.class).get()
+    ) {
+      @Override
+      protected void processEntity(Entity entity, float deltaTime) {
+        acted.add(entity);
+
+        if (attributes.energy >= 100) {
+          attributes.energy -= 100;
+        }
+      }
+    }));
+    engine.addEntity(sloth);
+
+    for (int i = 0; i < 3; i++) {
+      takeTurn();
+    }
+
+    assertEquals(1, acted.size);
+    assertEquals(25, attributes.energy);
+
+    takeTurn();
+    assertEquals(2, acted.size);
+    assertEquals(0, attributes.energy);
+  }
+
+  @Test
+  public void shouldLeaveSleepersAloneUntilTheyWakeUp() {
+    Entity sleeper = actor(100);
+    BrainComponent brain = new BrainComponent(sleeper);
+    brain.wakeTurn = 5;
+
+    sleeper.add(brain);
+    sleeper.add(new PositionComponent(0, 0));
+    engine.addEntity(sleeper);
+
+    takeTurn();
+    assertEquals(1, acted.size);
+
+    for (int i = 0; i < 3; i++) {
+      takeTurn();
+    }
+
+    assertEquals(1, acted.size);
+
+    takeTurn();
+    assertEquals(2, acted.size);
+  }
+
+  @Test
+  public void shouldWakeSleepersThatHearSomething() {
+    Entity sleeper = actor(100);
+    BrainComponent brain = new BrainComponent(sleeper);
+    brain.wakeTurn = 50;
+
+    sleeper.add(brain);
+    sleeper.add(new PositionComponent(0, 0));
+    engine.addEntity(sleeper);
+
+    takeTurn();
+    takeTurn();
+    assertEquals(1, acted.size);
+
+    turns.wakeAround(5, 5, 10);
+    takeTurn();
+    assertEquals(2, acted.size);
+  }
+
+  @Test
+  public void shouldSpreadSlowTurnsOverFrames() throws InterruptedException {
+    int[] ended = {0};
+
+    engine = new Engine();
+    turns = new TurnSystem(new UsesEnergySystem(Family.all(AttributesComponent.class).get()) {
+      @Override
+      protected void processEntity(Entity entity, float deltaTime) {
+        acted.add(entity);
+
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException ignored) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }).then(new EntitySystem() {
+      @Override
+      public void update(float deltaTime) {
+        ended[0] += 1;
+      }
+    });
+    turns.budget = 1;
+    engine.addSystem(turns);
+
+    for (int i = 0; i < 3; i++) {
+      engine.addEntity(actor(100));
+    }
+
+    takeTurn();
+    assertEquals(1, acted.size);
+    assertTrue(WorldManager.turnInProgress);
+    assertEquals(0, ended[0]);
+
+    engine.update(0);
+    engine.update(0);
+    assertEquals(3, acted.size);
+    assertFalse(WorldManager.turnInProgress);
+    assertEquals(1, ended[0]);
+  }
+}
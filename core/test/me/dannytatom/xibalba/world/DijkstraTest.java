@@ -0,0 +1,137 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DijkstraTest {
+  private static boolean[] open(int width, int height) {
+    boolean[] walkable = new boolean[width * height];
+    Arrays.fill(walkable, true);
+
+    return walkable;
+  }
+
+  private static Array<Vector2> goals(Vector2... positions) {
+    Array<Vector2> goals = new Array<>();
+    goals.addAll(positions);
+
+    return goals;
+  }
+
+  @Test
+  public void shouldCountDiagonalStepsAsOne() {
+    Dijkstra dijkstra = new Dijkstra(10, 10, open(10, 10));
+    dijkstra.calculate(goals(new Vector2(0, 0)));
+
+    assertEquals(0, dijkstra.get(0, 0));
+    assertEquals(9, dijkstra.get(9, 9));
+    assertEquals(9, dijkstra.get(3, 9));
+  }
+
+  @Test
+  public void shouldNotCapLongDistances() {
+    Dijkstra dijkstra = new Dijkstra(300, 1, open(300, 1));
+    dijkstra.calculate(goals(new Vector2(0, 0)));
+
+    assertEquals(299, dijkstra.get(299, 0));
+  }
+
+  @Test
+  public void shouldUseNearestOfSeveralGoals() {
+    Dijkstra dijkstra = new Dijkstra(20, 1, open(20, 1));
+    dijkstra.calculate(goals(new Vector2(0, 0), new Vector2(19, 0)));
+
+    assertEquals(5, dijkstra.get(5, 0));
+    assertEquals(4, dijkstra.get(15, 0));
+  }
+
+  @Test
+  public void shouldRespectGoalWeights() {
+    Dijkstra dijkstra = new Dijkstra(20, 1, open(20, 1));
+    dijkstra.calculate(goals(new Vector2(0, 0), new Vector2(19, 0)), new int[]{0, -10});
+
+    assertEquals(-10, dijkstra.get(19, 0));
+    assertEquals(-1, dijkstra.get(10, 0));
+    assertEquals(0, dijkstra.get(0, 0));
+  }
+
+  @Test
+  public void shouldIgnoreGoalsThatCantBeWalkedOn() {
+    boolean[] walkable = open(5, 1);
+    walkable[4] = false;
+
+    Dijkstra dijkstra = new Dijkstra(5, 1, walkable);
+    dijkstra.calculate(goals(new Vector2(4, 0)));
+
+    assertEquals(Dijkstra.UNREACHABLE, dijkstra.get(4, 0));
+    assertEquals(Dijkstra.UNREACHABLE, dijkstra.get(3, 0));
+  }
+
+  @Test
+  public void shouldWalkAroundWalls() {
+    boolean[] walkable = open(5, 5);
+
+    for (int y = 0; y < 4; y++) {
+      walkable[2 + y * 5] = false;
+    }
+
+    Dijkstra dijkstra = new Dijkstra(5, 5, walkable);
+    dijkstra.calculate(goals(new Vector2(4, 0)));
+
+    assertEquals(Dijkstra.UNREACHABLE, dijkstra.get(2, 0));
+    assertEquals(8, dijkstra.get(0, 0));
+
+    Array<Vector2> path = dijkstra.findPath(new Vector2(0, 0));
+
+    assertEquals(9, path.size);
+    assertEquals(new Vector2(4, 0), path.peek());
+  }
+
+  @Test
+  public void shouldRepairToSameFieldAsFullCalculate() {
+    Random random = new Random(42);
+    int width = 30;
+    int height = 20;
+    boolean[] walkable = new boolean[width * height];
+
+    for (int i = 0; i < walkable.length; i++) {
+      walkable[i] = random.nextInt(4) != 0;
+    }
+
+    Vector2 goal = new Vector2(15, 10);
+    walkable[15 + 10 * width] = true;
+
+    Dijkstra repaired = new Dijkstra(width, height, walkable);
+    repaired.calculate(goals(goal.cpy()));
+
+    Dijkstra expected = new Dijkstra(width, height, walkable);
+
+    for (int step = 0; step < 200; step++) {
+      Vector2 next = new Vector2(
+        Math.max(0, Math.min(width - 1, goal.x + random.nextInt(3) - 1)),
+        Math.max(0, Math.min(height - 1, goal.y + random.nextInt(3) - 1))
+      );
+
+      if (!walkable[(int) next.x + (int) next.y * width]) {
+        continue;
+      }
+
+      repaired.moveGoal(goal, next);
+      goal.set(next);
+
+      expected.calculate(goals(goal.cpy()));
+
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          assertEquals(expected.get(x, y), repaired.get(x, y));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MapSoundTest {
+  private static Map floor(int width, int height) {
+    MapCell.Type[][] geometry = new MapCell.Type[width][height];
+
+    for (MapCell.Type[] column : geometry) {
+      Arrays.fill(column, MapCell.Type.FLOOR);
+    }
+
+    Map map = new Map(0, "cave", geometry);
+
+    for (int i = 0; i < width * height; i++) {
+      map.setType(i, MapCell.FLOOR);
+    }
+
+    return map;
+  }
+
+  @Test
+  public void shouldBeMuffledByWalls() {
+    Map map = floor(20, 1);
+    Entity source = new Entity();
+
+    map.sound.emit(source, 0, 0, 10);
+    map.sound.propagate();
+
+    assertTrue(map.sound.canHear(10, 0, source, 10));
+    assertFalse(map.sound.canHear(11, 0, source, 20));
+
+    map.setType(5, MapCell.WALL);
+    map.sound.emit(source, 0, 0, 10);
+    map.sound.propagate();
+
+    // The wall costs 4 to get through instead of 1
+    assertTrue(map.sound.canHear(7, 0, source, 10));
+    assertFalse(map.sound.canHear(8, 0, source, 10));
+  }
+
+  @Test
+  public void shouldNotBeDrownedOutByYourOwnNoise() {
+    Map map = floor(20, 1);
+    Entity listener = new Entity();
+    Entity other = new Entity();
+
+    map.sound.emit(other, 0, 0, 20);
+    map.sound.emit(listener, 10, 0, 30);
+    map.sound.propagate();
+
+    assertTrue(map.sound.canHear(10, 0, other, 10));
+    assertFalse(map.sound.canHear(10, 0, other, 9));
+  }
+
+  @Test
+  public void shouldNotLetACrowdDrownOutThePlayer() {
+    Map map = floor(20, 1);
+    Entity player = new Entity();
+
+    WorldManager.player = player;
+
+    map.sound.emit(player, 0, 0, 10);
+
+    for (int i = 0; i < 3; i++) {
+      map.sound.emit(new Entity(), 5, 0, 30);
+    }
+
+    map.sound.propagate();
+
+    assertTrue(map.sound.canHear(5, 0, player, 10));
+
+    WorldManager.player = null;
+  }
+
+  @Test
+  public void shouldForgetLastTurnsNoise() {
+    Map map = floor(20, 1);
+    Entity source = new Entity();
+
+    map.sound.emit(source, 0, 0, 10);
+    map.sound.propagate();
+    map.sound.propagate();
+
+    assertFalse(map.sound.canHear(0, 0, source, 10));
+  }
+}
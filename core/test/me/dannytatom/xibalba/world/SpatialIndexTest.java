@@ -0,0 +1,67 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import me.dannytatom.xibalba.components.PositionComponent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpatialIndexTest {
+  private Engine engine;
+  private SpatialIndex index;
+
+  private Entity spawn(int cellX, int cellY) {
+    Entity entity = new Entity();
+    entity.add(new PositionComponent(cellX, cellY));
+    engine.addEntity(entity);
+
+    return entity;
+  }
+
+  @Before
+  public void setUp() {
+    engine = new Engine();
+    index = new SpatialIndex();
+    engine.addEntityListener(Family.all(PositionComponent.class).get(), index);
+  }
+
+  @Test
+  public void shouldFollowEntitiesAround() {
+    Entity entity = spawn(3, 4);
+
+    assertEquals(1, index.get(3, 4).size);
+
+    entity.getComponent(PositionComponent.class).pos.set(5, 6);
+    index.update(entity);
+
+    assertEquals(0, index.get(3, 4).size);
+    assertEquals(entity, index.get(5, 6).first());
+
+    engine.removeEntity(entity);
+
+    assertEquals(0, index.get(5, 6).size);
+  }
+
+  @Test
+  public void shouldFindEverythingInsideRectangle() {
+    Entity inside = spawn(2, 2);
+    spawn(10, 10);
+    spawn(0, 5);
+
+    Array<Entity> small = new Array<>();
+    index.get(1, 1, 2, 2, small);
+
+    assertEquals(1, small.size);
+    assertTrue(small.contains(inside, true));
+
+    Array<Entity> large = new Array<>();
+    index.get(0, 0, 6, 6, large);
+
+    assertEquals(2, large.size);
+  }
+}